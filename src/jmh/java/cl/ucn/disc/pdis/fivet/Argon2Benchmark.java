@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Argon2 benchmark: encode and matches with different memory and iterations.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Argon2Benchmark {
+
+    /**
+     * The password.
+     */
+    private static final String PASSWORD = "durrutia123";
+
+    /**
+     * The memory (in KB).
+     */
+    @Param({"4096", "16384", "65536"})
+    public int memory;
+
+    /**
+     * The number of iterations.
+     */
+    @Param({"1", "3"})
+    public int iterations;
+
+    /**
+     * The encoder.
+     */
+    private Argon2PasswordEncoder encoder;
+
+    /**
+     * The encoded password.
+     */
+    private String encoded;
+
+    /**
+     * Build the encoder.
+     */
+    @Setup
+    public void setup() {
+        this.encoder = new Argon2PasswordEncoder(16, 32, 1, this.memory, this.iterations);
+        this.encoded = this.encoder.encode(PASSWORD);
+    }
+
+    /**
+     * @return the hash of the password.
+     */
+    @Benchmark
+    public String encode() {
+        return this.encoder.encode(PASSWORD);
+    }
+
+    /**
+     * @return true if the password matches.
+     */
+    @Benchmark
+    public boolean matches() {
+        return this.encoder.matches(PASSWORD, this.encoded);
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.grpc.Credencial;
+import cl.ucn.disc.pdis.fivet.grpc.FivetServiceGrpc;
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.orm.DatabaseConfig;
+import cl.ucn.disc.pdis.fivet.services.ControllerConfig;
+import cl.ucn.disc.pdis.fivet.services.CredentialCacheConfig;
+import cl.ucn.disc.pdis.fivet.services.FivetControllerImpl;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The end-to-end autenticar benchmark (in-process gRPC transport).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutenticarBenchmark {
+
+    /**
+     * The name of the in-process server.
+     */
+    private static final String NAME = "fivet-jmh";
+
+    /**
+     * The credential.
+     */
+    private static final Credencial CREDENCIAL = Credencial.newBuilder()
+            .setLogin("durrutia@ucn.cl")
+            .setPassword("durrutia123")
+            .build();
+
+    /**
+     * True to use the cache of verified credentials.
+     */
+    @Param({"false", "true"})
+    public boolean credentialCache;
+
+    /**
+     * The Controller.
+     */
+    private FivetControllerImpl controller;
+
+    /**
+     * The Server.
+     */
+    private Server server;
+
+    /**
+     * The Channel.
+     */
+    private ManagedChannel channel;
+
+    /**
+     * The stub.
+     */
+    private FivetServiceGrpc.FivetServiceBlockingStub stub;
+
+    /**
+     * Start the server with one Persona and connect the client.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        ControllerConfig config = ControllerConfig.builder()
+                .database(DatabaseConfig.of("jdbc:h2:mem:fivet_jmh_autenticar"))
+                .credentialCache(CredentialCacheConfig.builder().enabled(this.credentialCache).build())
+                .build();
+        this.controller = new FivetControllerImpl(config, true);
+        this.controller.add(Persona.builder()
+                .rut("130144918")
+                .nombre("Diego Urrutia")
+                .email("durrutia@ucn.cl")
+                .direccion("Angamos 0610")
+                .build(), CREDENCIAL.getPassword());
+
+        this.server = InProcessServerBuilder.forName(NAME)
+                .addService(new TheServer.FivetServiceImpl(this.controller))
+                .build()
+                .start();
+        this.channel = InProcessChannelBuilder.forName(NAME).build();
+        this.stub = FivetServiceGrpc.newBlockingStub(this.channel);
+    }
+
+    /**
+     * Stop the client, the server and the controller.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        this.server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        this.controller.close();
+    }
+
+    /**
+     * @return the Persona authenticated.
+     */
+    @Benchmark
+    public Object autenticar() {
+        return this.stub.autenticar(CREDENCIAL);
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.orm.DAO;
+import cl.ucn.disc.pdis.fivet.orm.ORMLiteDAO;
+import cl.ucn.disc.pdis.fivet.orm.Schema;
+import cl.ucn.disc.pdis.fivet.orm.TimestampFormat;
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The DAO benchmark: get by id, by attribute, by login (one query vs two), in batch and getAll (H2 and SQLite).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DAOBenchmark {
+
+    /**
+     * The database.
+     */
+    @Param({"h2", "sqlite"})
+    public String database;
+
+    /**
+     * The number of rows in the table.
+     */
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    /**
+     * The number of logins of the batch lookup.
+     */
+    private static final int BATCH = 1_000;
+
+    /**
+     * The logins of the batch lookup (rut and email, mixed).
+     */
+    private final List<String> logins = new ArrayList<>(BATCH);
+
+    /**
+     * The ConnectionSource.
+     */
+    private ConnectionSource connectionSource;
+
+    /**
+     * The DAO of Persona.
+     */
+    private DAO<Persona> dao;
+
+    /**
+     * Create the table and insert the rows.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        TimestampFormat.STRING.register();
+
+        String url = "h2".equals(this.database) ? "jdbc:h2:mem:fivet_jmh" : "jdbc:sqlite:build/fivet-jmh.db";
+        this.connectionSource = new JdbcConnectionSource(url);
+        Schema.dropTable(this.connectionSource, Persona.class);
+        Schema.createTable(this.connectionSource, Persona.class);
+        this.dao = new ORMLiteDAO<>(this.connectionSource, Persona.class);
+
+        List<Persona> personas = new ArrayList<>(this.rows);
+        for (int i = 0; i < this.rows; i++) {
+            personas.add(Persona.builder()
+                    .rut("rut-" + i)
+                    .nombre("Persona " + i)
+                    .email("persona" + i + "@ucn.cl")
+                    .password("not-a-hash")
+                    .build());
+        }
+        this.dao.saveAll(personas);
+
+        for (int i = 0; i < BATCH; i++) {
+            int n = ThreadLocalRandom.current().nextInt(this.rows);
+            this.logins.add(i % 2 == 0 ? "rut-" + n : "persona" + n + "@ucn.cl");
+        }
+    }
+
+    /**
+     * Drop the table and close the connection.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Schema.dropTable(this.connectionSource, Persona.class);
+        this.connectionSource.close();
+    }
+
+    /**
+     * @return a Persona by id.
+     */
+    @Benchmark
+    public Optional<Persona> getById() {
+        return this.dao.get(ThreadLocalRandom.current().nextInt(this.rows) + 1);
+    }
+
+    /**
+     * @return a Persona by email.
+     */
+    @Benchmark
+    public Optional<Persona> getByEmail() {
+        return this.dao.get("email", "persona" + ThreadLocalRandom.current().nextInt(this.rows) + "@ucn.cl");
+    }
+
+    /**
+     * @return a Persona by rut or email (the login lookup).
+     */
+    @Benchmark
+    public Optional<Persona> getByLogin() {
+        return this.dao.getAny(List.of("rut", "email"), "rut-" + ThreadLocalRandom.current().nextInt(this.rows));
+    }
+
+    /**
+     * @return a Persona by email in one query (rut OR email: the rut misses).
+     */
+    @Benchmark
+    public Optional<Persona> getByLoginEmail() {
+        String login = "persona" + ThreadLocalRandom.current().nextInt(this.rows) + "@ucn.cl";
+        return this.dao.getAny(List.of("rut", "email"), login);
+    }
+
+    /**
+     * @return a Persona by email in two queries (rut, then email: the lookup before getAny).
+     */
+    @Benchmark
+    public Optional<Persona> getByLoginEmailTwoQueries() {
+        String login = "persona" + ThreadLocalRandom.current().nextInt(this.rows) + "@ucn.cl";
+        Optional<Persona> persona = this.dao.get("rut", login);
+        return persona.isPresent() ? persona : this.dao.get("email", login);
+    }
+
+    /**
+     * @return the Personas of a batch of logins (one IN query, chunked by the limit of parameters).
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Persona> getByLoginBatch() {
+        return this.dao.getAnyIn(List.of("rut", "email"), this.logins);
+    }
+
+    /**
+     * @return all the Personas.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Persona> getAll() {
+        return this.dao.getAll();
+    }
+
+}
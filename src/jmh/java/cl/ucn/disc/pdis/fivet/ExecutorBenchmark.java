@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.grpc.Credencial;
+import cl.ucn.disc.pdis.fivet.grpc.FivetServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The executors of the calls benchmark: autenticar with the database stubbed, 32 concurrent clients.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class ExecutorBenchmark {
+
+    /**
+     * The name of the in-process server.
+     */
+    private static final String NAME = "fivet-jmh-executor";
+
+    /**
+     * The credential.
+     */
+    private static final Credencial CREDENCIAL = Credencial.newBuilder()
+            .setLogin("durrutia@ucn.cl")
+            .setPassword("durrutia123")
+            .build();
+
+    /**
+     * The executor of the calls.
+     */
+    @Param({"CACHED", "FIXED", "WORK_STEALING", "VIRTUAL"})
+    public ExecutorMode mode;
+
+    /**
+     * The time of the (simulated) query.
+     */
+    @Param({"0", "1000"})
+    public long latencyMicros;
+
+    /**
+     * The executor.
+     */
+    private InstrumentedExecutor executor;
+
+    /**
+     * The Server.
+     */
+    private Server server;
+
+    /**
+     * The Channel.
+     */
+    private ManagedChannel channel;
+
+    /**
+     * The stub.
+     */
+    private FivetServiceGrpc.FivetServiceBlockingStub stub;
+
+    /**
+     * Start the server and connect the client.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.executor = new InstrumentedExecutor(this.mode, 2 * Runtime.getRuntime().availableProcessors());
+        this.server = InProcessServerBuilder.forName(NAME)
+                .executor(this.executor)
+                .addService(new TheServer.FivetServiceImpl(new StubController(this.latencyMicros)))
+                .build()
+                .start();
+        this.channel = InProcessChannelBuilder.forName(NAME).build();
+        this.stub = FivetServiceGrpc.newBlockingStub(this.channel);
+    }
+
+    /**
+     * Report the metrics, stop the client and the server.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        log.info("Executor: {}", this.executor.getMetrics());
+        this.channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        this.server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * @return the Persona authenticated.
+     */
+    @Benchmark
+    public Object autenticar() {
+        return this.stub.autenticar(CREDENCIAL);
+    }
+
+}
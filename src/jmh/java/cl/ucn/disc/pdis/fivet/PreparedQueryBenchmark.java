@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.orm.DAO;
+import cl.ucn.disc.pdis.fivet.orm.ORMLiteDAO;
+import cl.ucn.disc.pdis.fivet.orm.Schema;
+import cl.ucn.disc.pdis.fivet.orm.TimestampFormat;
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.stmt.QueryBuilder;
+import com.j256.ormlite.stmt.SelectArg;
+import com.j256.ormlite.stmt.Where;
+import com.j256.ormlite.support.ConnectionSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The login lookup benchmark: the query built on each call (QueryBuilder) vs the pooled prepared query of ORMLiteDAO.
+ * Run with {@code -prof gc} to compare the allocations.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreparedQueryBenchmark {
+
+    /**
+     * The attributes used as login.
+     */
+    private static final List<String> LOGIN_ATTRIBUTES = List.of("rut", "email");
+
+    /**
+     * The number of rows.
+     */
+    private static final int ROWS = 10_000;
+
+    /**
+     * The database.
+     */
+    @Param({"h2", "sqlite"})
+    public String database;
+
+    /**
+     * The ConnectionSource.
+     */
+    private ConnectionSource connectionSource;
+
+    /**
+     * The ORMLite Dao.
+     */
+    private Dao<Persona, Integer> ormliteDao;
+
+    /**
+     * The DAO of Persona.
+     */
+    private DAO<Persona> dao;
+
+    /**
+     * Create the table and insert the rows.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        TimestampFormat.STRING.register();
+
+        String url = "h2".equals(this.database) ? "jdbc:h2:mem:fivet_jmh_prepared" : "jdbc:sqlite:build/fivet-jmh.db";
+        this.connectionSource = new JdbcConnectionSource(url);
+        Schema.dropTable(this.connectionSource, Persona.class);
+        Schema.createTable(this.connectionSource, Persona.class);
+        this.ormliteDao = DaoManager.createDao(this.connectionSource, Persona.class);
+        this.dao = new ORMLiteDAO<>(this.connectionSource, Persona.class);
+
+        List<Persona> personas = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            personas.add(Persona.builder()
+                    .rut("rut-" + i)
+                    .nombre("Persona " + i)
+                    .email("persona" + i + "@ucn.cl")
+                    .password("not-a-hash")
+                    .build());
+        }
+        this.dao.saveAll(personas);
+    }
+
+    /**
+     * Drop the table and close the connection.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Schema.dropTable(this.connectionSource, Persona.class);
+        this.connectionSource.close();
+    }
+
+    /**
+     * @return a Persona by login, building the query in each call.
+     */
+    @Benchmark
+    public List<Persona> queryBuilder() throws Exception {
+        String login = "persona" + ThreadLocalRandom.current().nextInt(ROWS) + "@ucn.cl";
+        QueryBuilder<Persona, Integer> qb = this.ormliteDao.queryBuilder();
+        Where<Persona, Integer> where = qb.where();
+        for (String attribute : LOGIN_ATTRIBUTES) {
+            where.eq(attribute, new SelectArg(login));
+        }
+        where.or(LOGIN_ATTRIBUTES.size()).and().isNull("deletedAt");
+        return this.ormliteDao.query(qb.prepare());
+    }
+
+    /**
+     * @return a Persona by login, using the pooled prepared query.
+     */
+    @Benchmark
+    public Object preparedQuery() {
+        String login = "persona" + ThreadLocalRandom.current().nextInt(ROWS) + "@ucn.cl";
+        return this.dao.getAny(LOGIN_ATTRIBUTES, login);
+    }
+
+}
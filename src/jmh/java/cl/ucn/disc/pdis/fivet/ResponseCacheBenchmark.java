@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.grpc.FivetServiceGrpc;
+import cl.ucn.disc.pdis.fivet.grpc.Persona;
+import io.grpc.Drainable;
+import io.grpc.MethodDescriptor;
+import lombok.SneakyThrows;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The response of autenticar: build + encode the Persona each call vs the cached bytes. Run it with the allocation
+ * profiler: gradle jmh -PjmhInclude=ResponseCacheBenchmark -PjmhProfilers=gc (see gc.alloc.rate.norm).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseCacheBenchmark {
+
+    /**
+     * The marshaller of the gRPC Persona.
+     */
+    private final MethodDescriptor.Marshaller<Persona> marshaller =
+            FivetServiceGrpc.getAutenticarMethod().getResponseMarshaller();
+
+    /**
+     * The bytes of the Persona (cached).
+     */
+    private final byte[] bytes = this.persona().toByteArray();
+
+    /**
+     * The wire.
+     */
+    private final OutputStream wire = OutputStream.nullOutputStream();
+
+    /**
+     * @return the bytes written.
+     */
+    @Benchmark
+    public int build() {
+        return this.drain(this.marshaller.stream(this.persona()));
+    }
+
+    /**
+     * @return the bytes written.
+     */
+    @Benchmark
+    public int cached() {
+        return this.drain(PersonaBytesCache.MARSHALLER.stream(this.bytes));
+    }
+
+    /**
+     * @return the Persona (as FivetServiceImpl.toGrpc).
+     */
+    private Persona persona() {
+        return Persona.newBuilder()
+                .setRut("130144918")
+                .setNombre("Diego Urrutia-Astorga")
+                .setEmail("durrutia@ucn.cl")
+                .setDireccion("Angamos 0610")
+                .build();
+    }
+
+    /**
+     * Write the stream as the framer does.
+     *
+     * @param stream to write.
+     * @return the bytes written.
+     */
+    @SneakyThrows
+    private int drain(InputStream stream) {
+        return ((Drainable) stream).drainTo(this.wire);
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.services.FivetController;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * The FivetController without database: one Persona, and a pause to simulate the (blocking) query.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+final class StubController implements FivetController {
+
+    /**
+     * The Persona.
+     */
+    private static final Persona PERSONA = Persona.builder()
+            .rut("130144918")
+            .nombre("Diego Urrutia")
+            .email("durrutia@ucn.cl")
+            .direccion("Angamos 0610")
+            .build();
+
+    /**
+     * The time of each query (nanos).
+     */
+    private final long latencyNanos;
+
+    /**
+     * The Constructor.
+     *
+     * @param latencyMicros of each query.
+     */
+    StubController(long latencyMicros) {
+        this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+    }
+
+    /**
+     * Simulate the query.
+     */
+    private void query() {
+        if (this.latencyNanos > 0) {
+            LockSupport.parkNanos(this.latencyNanos);
+        }
+    }
+
+    /**
+     * @param login to use (rut or email).
+     * @return the Persona.
+     */
+    @Override
+    public Optional<Persona> retrieveByLogin(String login) {
+        this.query();
+        return Optional.of(PERSONA);
+    }
+
+    /**
+     * @return the Persona.
+     */
+    @Override
+    public List<Persona> retrieveByLogins(Collection<String> logins) {
+        this.query();
+        return List.of(PERSONA);
+    }
+
+    /**
+     * @return empty list.
+     */
+    @Override
+    public List<Persona> retrievePage(Integer afterId, int size) {
+        this.query();
+        return List.of();
+    }
+
+    /**
+     * @return the Persona (any password).
+     */
+    @Override
+    public Optional<Persona> authenticate(String login, String password) {
+        return this.retrieveByLogin(login);
+    }
+
+    /**
+     * @return the Persona (any password).
+     */
+    @Override
+    public CompletableFuture<Optional<Persona>> authenticateAsync(String login, String password) {
+        return CompletableFuture.completedFuture(this.authenticate(login, password));
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void add(Persona persona, String password) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public Map<Integer, String> addAll(List<Persona> personas, List<String> passwords) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public CompletableFuture<Map<Integer, String>> addAllAsync(List<Persona> personas, List<String> passwords) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void changePassword(Integer idPersona, String password) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void delete(Integer idPersona) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Nothing changes.
+     */
+    @Override
+    public void addChangeListener(Consumer<Integer> listener) {
+        // Nothing here
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.orm.ZonedDateTimeEpochType;
+import cl.ucn.disc.pdis.fivet.orm.ZonedDateTimeType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ZonedDateTime converters benchmark (String and epoch, both directions).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZonedDateTimeTypeBenchmark {
+
+    /**
+     * The ZonedDateTime to convert.
+     */
+    private final ZonedDateTime zonedDateTime = ZonedDateTime.now();
+
+    /**
+     * The String representation.
+     */
+    private final Object string = ZonedDateTimeType.INSTANCE.javaToSqlArg(null, this.zonedDateTime);
+
+    /**
+     * The epoch representation.
+     */
+    private final Object epoch = ZonedDateTimeEpochType.INSTANCE.javaToSqlArg(null, this.zonedDateTime);
+
+    /**
+     * @return the ZonedDateTime as String.
+     */
+    @Benchmark
+    public Object stringToSql() {
+        return ZonedDateTimeType.INSTANCE.javaToSqlArg(null, this.zonedDateTime);
+    }
+
+    /**
+     * @return the String as ZonedDateTime.
+     */
+    @Benchmark
+    public Object stringToJava() {
+        return ZonedDateTimeType.INSTANCE.sqlArgToJava(null, this.string, 0);
+    }
+
+    /**
+     * @return the ZonedDateTime as epoch.
+     */
+    @Benchmark
+    public Object epochToSql() {
+        return ZonedDateTimeEpochType.INSTANCE.javaToSqlArg(null, this.zonedDateTime);
+    }
+
+    /**
+     * @return the epoch as ZonedDateTime.
+     */
+    @Benchmark
+    public Object epochToJava() {
+        return ZonedDateTimeEpochType.INSTANCE.sqlArgToJava(null, this.epoch, 0);
+    }
+
+}
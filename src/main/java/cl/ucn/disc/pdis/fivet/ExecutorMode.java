@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The kind of executor running the gRPC calls.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public enum ExecutorMode {
+
+    /**
+     * Unbounded cached pool (the gRPC default).
+     */
+    CACHED,
+
+    /**
+     * Fixed number of threads.
+     */
+    FIXED,
+
+    /**
+     * Work-stealing pool (ForkJoinPool).
+     */
+    WORK_STEALING,
+
+    /**
+     * One virtual thread per task (JDK 21+, falls back to CACHED).
+     */
+    VIRTUAL;
+
+    /**
+     * The factory of virtual thread executors (null before JDK 21: preview only or missing).
+     */
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtual();
+
+    /**
+     * @return the mode that runs in this JDK: VIRTUAL falls back to CACHED (with a warning) before JDK 21.
+     */
+    public ExecutorMode effective() {
+        if (this == VIRTUAL && NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+            log.warn("Virtual threads not available in Java {}, using CACHED", Runtime.version());
+            return CACHED;
+        }
+        return this;
+    }
+
+    /**
+     * Build the executor (of the {@link #effective()} mode).
+     *
+     * @param threads the number of threads (FIXED and WORK_STEALING).
+     * @return the ExecutorService.
+     */
+    public ExecutorService create(int threads) {
+        return switch (this.effective()) {
+            case CACHED -> Executors.newCachedThreadPool(threadFactory());
+            case FIXED -> new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), threadFactory());
+            case WORK_STEALING -> Executors.newWorkStealingPool(threads);
+            case VIRTUAL -> virtual();
+        };
+    }
+
+    /**
+     * @return the virtual thread per task executor.
+     */
+    @SneakyThrows(ReflectiveOperationException.class)
+    private static ExecutorService virtual() {
+        return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+    }
+
+    /**
+     * @return the Executors.newVirtualThreadPerTaskExecutor method (null if not available).
+     */
+    private static Method findVirtual() {
+        if (Runtime.version().feature() < 21) {
+            return null;
+        }
+        try {
+            // Reflection: the code is compiled for Java 17
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the factory of daemon threads named fivet-grpc-N.
+     */
+    private static ThreadFactory threadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "fivet-grpc-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
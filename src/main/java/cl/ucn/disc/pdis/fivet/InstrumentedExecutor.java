@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The executor of the calls, measuring the tasks (submitted, running, completed and the time waiting for a thread).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+public final class InstrumentedExecutor extends AbstractExecutorService {
+
+    /**
+     * The kind of executor.
+     */
+    @Getter
+    private final ExecutorMode mode;
+
+    /**
+     * The executor.
+     */
+    private final ExecutorService delegate;
+
+    /**
+     * Number of tasks submitted.
+     */
+    private final LongAdder submitted = new LongAdder();
+
+    /**
+     * Number of tasks started.
+     */
+    private final LongAdder started = new LongAdder();
+
+    /**
+     * Number of tasks completed.
+     */
+    private final LongAdder completed = new LongAdder();
+
+    /**
+     * Total time waiting for a thread.
+     */
+    private final LongAdder waitNanos = new LongAdder();
+
+    /**
+     * Max time waiting for a thread.
+     */
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+
+    /**
+     * The Constructor.
+     *
+     * @param mode    of the executor.
+     * @param threads to use (FIXED and WORK_STEALING).
+     */
+    public InstrumentedExecutor(@NonNull ExecutorMode mode, int threads) {
+        // The mode really used (VIRTUAL may fall back to CACHED)
+        this.mode = mode.effective();
+        this.delegate = this.mode.create(threads);
+    }
+
+    /**
+     * Run a task.
+     *
+     * @param command to run.
+     */
+    @Override
+    public void execute(@NonNull Runnable command) {
+        long submittedAt = System.nanoTime();
+        this.submitted.increment();
+        this.delegate.execute(() -> {
+            long wait = System.nanoTime() - submittedAt;
+            this.started.increment();
+            this.waitNanos.add(wait);
+            this.maxWaitNanos.accumulate(wait);
+            try {
+                command.run();
+            } finally {
+                this.completed.increment();
+            }
+        });
+    }
+
+    /**
+     * @return the number of tasks waiting for a thread.
+     */
+    public long getQueued() {
+        return this.submitted.sum() - this.started.sum();
+    }
+
+    /**
+     * @return the current metrics of the executor.
+     */
+    public ExecutorMetrics getMetrics() {
+        long started = this.started.sum();
+        long completed = this.completed.sum();
+        int poolSize = -1;
+        if (this.delegate instanceof ThreadPoolExecutor pool) {
+            poolSize = pool.getPoolSize();
+        } else if (this.delegate instanceof ForkJoinPool pool) {
+            poolSize = pool.getPoolSize();
+        }
+        return ExecutorMetrics.builder()
+                .mode(this.mode)
+                .poolSize(poolSize)
+                .active(started - completed)
+                .queued(this.submitted.sum() - started)
+                .completed(completed)
+                .averageWaitMillis(started == 0 ? 0 : toMillis(this.waitNanos.sum()) / started)
+                .maxWaitMillis(toMillis(this.maxWaitNanos.get()))
+                .build();
+    }
+
+    /**
+     * Stop accepting tasks.
+     */
+    @Override
+    public void shutdown() {
+        this.delegate.shutdown();
+    }
+
+    /**
+     * Stop accepting tasks and interrupt the running ones.
+     *
+     * @return the tasks never started.
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        return this.delegate.shutdownNow();
+    }
+
+    /**
+     * @return true if shutdown.
+     */
+    @Override
+    public boolean isShutdown() {
+        return this.delegate.isShutdown();
+    }
+
+    /**
+     * @return true if all the tasks are completed after shutdown.
+     */
+    @Override
+    public boolean isTerminated() {
+        return this.delegate.isTerminated();
+    }
+
+    /**
+     * Wait for the tasks after shutdown.
+     *
+     * @param timeout to wait.
+     * @param unit    of the timeout.
+     * @return true if terminated.
+     */
+    @Override
+    public boolean awaitTermination(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        return this.delegate.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * @param nanos to convert.
+     * @return the nanos as millis.
+     */
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+}
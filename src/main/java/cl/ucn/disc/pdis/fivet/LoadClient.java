@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.grpc.Credencial;
+import cl.ucn.disc.pdis.fivet.grpc.FivetServiceGrpc;
+import cl.ucn.disc.pdis.fivet.grpc.Persona;
+import cl.ucn.disc.pdis.fivet.grpc.RegistroPersona;
+import cl.ucn.disc.pdis.fivet.grpc.ResultadoImportacion;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.health.v1.HealthCheckRequest;
+import io.grpc.health.v1.HealthCheckResponse;
+import io.grpc.health.v1.HealthGrpc;
+import io.grpc.stub.StreamObserver;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The open-loop load generator of autenticar.
+ * <p>
+ * The calls are scheduled at a fixed rate, no matter how slow the server is. The latency is measured from the time
+ * the call <i>should</i> have been sent, so the waits of a slow server are not hidden (coordinated omission).
+ * <p>
+ * The startup: seed once against a persistent database (i.e. -Dfivet.db.url=jdbc:h2:./fivet), restart the server
+ * with -Dfivet.warmUp=false (before) or true (after), run with -Dfivet.load.seed=false and compare the latency of
+ * the first seconds (fivet.load.startupWindow).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class LoadClient {
+
+    /**
+     * The kind of credential.
+     */
+    private enum Kind {
+        VALID, INVALID, UNKNOWN
+    }
+
+    /**
+     * The percentiles to report.
+     */
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 99.99};
+
+    /**
+     * The configuration.
+     */
+    private final LoadConfig config;
+
+    /**
+     * The channels.
+     */
+    private final List<ManagedChannel> channels = new ArrayList<>();
+
+    /**
+     * The stubs (one by channel).
+     */
+    private final List<FivetServiceGrpc.FivetServiceStub> stubs = new ArrayList<>();
+
+    /**
+     * The latency from the scheduled time (micros).
+     */
+    private final Histogram corrected = new ConcurrentHistogram(3);
+
+    /**
+     * The latency from the scheduled time of the calls in the startup window (micros).
+     */
+    private final Histogram startup = new ConcurrentHistogram(3);
+
+    /**
+     * The latency from the time sent (micros).
+     */
+    private final Histogram uncorrected = new ConcurrentHistogram(3);
+
+    /**
+     * The results: kind + status code -> count.
+     */
+    private final ConcurrentMap<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    /**
+     * The permits of calls in flight.
+     */
+    private final Semaphore inflight;
+
+    /**
+     * The Constructor.
+     *
+     * @param config to use.
+     */
+    public LoadClient(@NonNull LoadConfig config) {
+        this.config = config;
+        this.inflight = new Semaphore(config.getConcurrency());
+        for (int i = 0; i < config.getChannels(); i++) {
+            ManagedChannel channel = ManagedChannelBuilder
+                    .forAddress(config.getHost(), config.getPort())
+                    .usePlaintext()
+                    .build();
+            this.channels.add(channel);
+            this.stubs.add(FivetServiceGrpc.newStub(channel));
+        }
+    }
+
+    /**
+     * The Main.
+     */
+    @SneakyThrows
+    public static void main(String[] args) {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        log.info("Starting the LoadClient: {}", config);
+
+        LoadClient client = new LoadClient(config);
+        if (config.isWaitReady()) {
+            client.awaitReady();
+        }
+        if (config.isSeed()) {
+            client.seed();
+        }
+        long elapsed = client.run();
+        client.report(elapsed);
+        client.close();
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Wait until the server reports SERVING (after its warm-up).
+     */
+    @SneakyThrows
+    public void awaitReady() {
+        long start = System.nanoTime();
+        HealthGrpc.HealthBlockingStub health = HealthGrpc.newBlockingStub(this.channels.get(0));
+        HealthCheckRequest request = HealthCheckRequest.newBuilder().setService(FivetServiceGrpc.SERVICE_NAME).build();
+        while (true) {
+            try {
+                if (health.withDeadlineAfter(1, TimeUnit.SECONDS).check(request).getStatus()
+                        == HealthCheckResponse.ServingStatus.SERVING) {
+                    break;
+                }
+            } catch (StatusRuntimeException ex) {
+                log.debug("Not ready: {}", ex.getStatus());
+            }
+            Thread.sleep(100);
+        }
+        log.info("Server ready after {}ms.", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Create the users (via importarPersonas).
+     */
+    @SneakyThrows
+    public void seed() {
+        log.info("Seeding {} users ..", this.config.getUsers());
+        CountDownLatch latch = new CountDownLatch(1);
+        StreamObserver<RegistroPersona> requests = this.stubs.get(0).importarPersonas(
+                new StreamObserver<>() {
+                    @Override
+                    public void onNext(ResultadoImportacion resultado) {
+                        log.info("Seeded: {} of {} ({} errors, ok if already seeded)", resultado.getImportadas(),
+                                resultado.getTotal(), resultado.getErroresCount());
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        log.warn("Seed failed: {}", Status.fromThrowable(throwable));
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        latch.countDown();
+                    }
+                });
+
+        for (int i = 0; i < this.config.getUsers(); i++) {
+            requests.onNext(RegistroPersona.newBuilder()
+                    .setPersona(Persona.newBuilder()
+                            .setRut("load-" + i)
+                            .setNombre("Load " + i)
+                            .setEmail("load-" + i + "@ucn.cl")
+                            .build())
+                    .setPassword(password(i))
+                    .build());
+        }
+        requests.onCompleted();
+        latch.await();
+    }
+
+    /**
+     * Send the calls at the configured rate.
+     *
+     * @return the elapsed time (nanos).
+     */
+    public long run() {
+        long interval = TimeUnit.SECONDS.toNanos(1) / this.config.getRate();
+        long start = System.nanoTime();
+        long startupEnd = start + TimeUnit.SECONDS.toNanos(this.config.getStartupWindowSeconds());
+        long end = start + TimeUnit.SECONDS.toNanos(this.config.getDurationSeconds());
+
+        log.info("Running {} calls/s for {}s ..", this.config.getRate(), this.config.getDurationSeconds());
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * interval;
+            if (scheduled >= end) {
+                break;
+            }
+
+            // Wait for the scheduled time
+            long now;
+            while ((now = System.nanoTime()) < scheduled) {
+                LockSupport.parkNanos(scheduled - now);
+            }
+
+            // The wait for a permit is measured too (from scheduled)
+            this.inflight.acquireUninterruptibly();
+            this.send(i, scheduled, scheduled < startupEnd);
+        }
+
+        // Wait for the calls in flight
+        this.inflight.acquireUninterruptibly(this.config.getConcurrency());
+        this.inflight.release(this.config.getConcurrency());
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Send one call.
+     *
+     * @param i         the number of the call.
+     * @param scheduled time of the call.
+     * @param startup   true if in the startup window.
+     */
+    private void send(long i, long scheduled, boolean startup) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int dice = random.nextInt(100);
+        Kind kind = dice < this.config.getValidPercent()
+                ? Kind.VALID
+                : dice < this.config.getValidPercent() + this.config.getInvalidPercent() ? Kind.INVALID : Kind.UNKNOWN;
+
+        int user = random.nextInt(this.config.getUsers());
+        Credencial credencial = Credencial.newBuilder()
+                .setLogin(kind == Kind.UNKNOWN ? "unknown-" + user : "load-" + user)
+                .setPassword(kind == Kind.INVALID ? "wrong" : password(user))
+                .build();
+
+        long sent = System.nanoTime();
+        this.stubs.get((int) (i % this.stubs.size()))
+                .withDeadlineAfter(this.config.getDeadlineMillis(), TimeUnit.MILLISECONDS)
+                .autenticar(credencial, new StreamObserver<>() {
+                    @Override
+                    public void onNext(Persona persona) {
+                        // Nothing here
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        done(kind, Status.fromThrowable(throwable).getCode(), scheduled, sent, startup);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        done(kind, Status.Code.OK, scheduled, sent, startup);
+                    }
+                });
+    }
+
+    /**
+     * Record a call.
+     *
+     * @param kind      of credential.
+     * @param code      of the result.
+     * @param scheduled time of the call.
+     * @param sent      time of the call.
+     * @param startup   true if in the startup window.
+     */
+    private void done(Kind kind, Status.Code code, long scheduled, long sent, boolean startup) {
+        long now = System.nanoTime();
+        this.corrected.recordValue(TimeUnit.NANOSECONDS.toMicros(now - scheduled));
+        if (startup) {
+            this.startup.recordValue(TimeUnit.NANOSECONDS.toMicros(now - scheduled));
+        }
+        this.uncorrected.recordValue(TimeUnit.NANOSECONDS.toMicros(now - sent));
+        this.outcomes.computeIfAbsent(kind + " " + code, key -> new LongAdder()).increment();
+        this.inflight.release();
+    }
+
+    /**
+     * Show the results.
+     *
+     * @param elapsed time of the test (nanos).
+     */
+    public void report(long elapsed) {
+        long total = this.corrected.getTotalCount();
+        double seconds = elapsed / (double) TimeUnit.SECONDS.toNanos(1);
+        log.info("Calls: {} in {}s -> {} calls/s (target: {})", total,
+                String.format(Locale.ROOT, "%.1f", seconds),
+                String.format(Locale.ROOT, "%.1f", total / seconds), this.config.getRate());
+        log.info("Latency (corrected):   {}", percentiles(this.corrected));
+        log.info("Latency (uncorrected): {}", percentiles(this.uncorrected));
+        log.info("Latency (first {}s):    {}", this.config.getStartupWindowSeconds(), percentiles(this.startup));
+
+        // The results (expected: VALID OK, INVALID and UNKNOWN UNAUTHENTICATED)
+        Map<String, Long> outcomes = new TreeMap<>();
+        this.outcomes.forEach((key, value) -> outcomes.put(key, value.sum()));
+        long errors = outcomes.entrySet().stream()
+                .filter(e -> !e.getKey().equals("VALID OK") && !e.getKey().endsWith("UNAUTHENTICATED")
+                        || e.getKey().startsWith("VALID UNAUTHENTICATED"))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        log.info("Results: {} (unexpected: {})", outcomes, errors);
+    }
+
+    /**
+     * Close the channels.
+     */
+    @SneakyThrows
+    public void close() {
+        for (ManagedChannel channel : this.channels) {
+            channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * @param user number.
+     * @return the password of the user.
+     */
+    private static String password(int user) {
+        return "password-" + user;
+    }
+
+    /**
+     * @param histogram to show (micros).
+     * @return the percentiles (ms).
+     */
+    private static String percentiles(Histogram histogram) {
+        StringBuilder sb = new StringBuilder();
+        for (double percentile : PERCENTILES) {
+            sb.append(String.format(Locale.ROOT, "p%s=%.2fms ", percentile,
+                    histogram.getValueAtPercentile(percentile) / 1000.0));
+        }
+        sb.append(String.format(Locale.ROOT, "max=%.2fms", histogram.getMaxValue() / 1000.0));
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The configuration of the LoadClient.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Builder
+@Getter
+@ToString
+public final class LoadConfig {
+
+    /**
+     * The host of TheServer.
+     */
+    @Builder.Default
+    private final String host = "127.0.0.1";
+
+    /**
+     * The port of TheServer.
+     */
+    @Builder.Default
+    private final int port = 8080;
+
+    /**
+     * The total rate (calls per second), independent of the response time (open-loop).
+     */
+    @Builder.Default
+    private final int rate = 100;
+
+    /**
+     * The max number of calls in flight.
+     */
+    @Builder.Default
+    private final int concurrency = 256;
+
+    /**
+     * The number of channels (connections).
+     */
+    @Builder.Default
+    private final int channels = 4;
+
+    /**
+     * The duration of the test (seconds).
+     */
+    @Builder.Default
+    private final int durationSeconds = 30;
+
+    /**
+     * The deadline of each call (ms).
+     */
+    @Builder.Default
+    private final long deadlineMillis = 10_000;
+
+    /**
+     * The number of users to seed (and use).
+     */
+    @Builder.Default
+    private final int users = 100;
+
+    /**
+     * Seed the users before the test (via importarPersonas).
+     */
+    @Builder.Default
+    private final boolean seed = true;
+
+    /**
+     * The percent of calls with a valid credential.
+     */
+    @Builder.Default
+    private final int validPercent = 80;
+
+    /**
+     * The percent of calls with a wrong password (the rest: unknown login).
+     */
+    @Builder.Default
+    private final int invalidPercent = 10;
+
+    /**
+     * The first seconds of the run reported apart (i.e. the calls right after the startup of the server).
+     */
+    @Builder.Default
+    private final int startupWindowSeconds = 10;
+
+    /**
+     * Wait for the server to report SERVING (gRPC health) before the run.
+     */
+    @Builder.Default
+    private final boolean waitReady = true;
+
+    /**
+     * Build the configuration from the System properties (-Dfivet.load.*).
+     *
+     * @return the LoadConfig.
+     */
+    public static LoadConfig fromSystemProperties() {
+        LoadConfig defaults = LoadConfig.builder().build();
+        return LoadConfig.builder()
+                .host(System.getProperty("fivet.load.host", defaults.host))
+                .port(Integer.getInteger("fivet.load.port", defaults.port))
+                .rate(Integer.getInteger("fivet.load.rate", defaults.rate))
+                .concurrency(Integer.getInteger("fivet.load.concurrency", defaults.concurrency))
+                .channels(Integer.getInteger("fivet.load.channels", defaults.channels))
+                .durationSeconds(Integer.getInteger("fivet.load.duration", defaults.durationSeconds))
+                .deadlineMillis(Long.getLong("fivet.load.deadline", defaults.deadlineMillis))
+                .users(Integer.getInteger("fivet.load.users", defaults.users))
+                .seed(Boolean.parseBoolean(System.getProperty("fivet.load.seed", String.valueOf(defaults.seed))))
+                .validPercent(Integer.getInteger("fivet.load.valid", defaults.validPercent))
+                .invalidPercent(Integer.getInteger("fivet.load.invalid", defaults.invalidPercent))
+                .startupWindowSeconds(Integer.getInteger("fivet.load.startupWindow", defaults.startupWindowSeconds))
+                .waitReady(Boolean.parseBoolean(System.getProperty("fivet.load.waitReady",
+                        String.valueOf(defaults.waitReady))))
+                .build();
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.metrics.Metrics;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.NonNull;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * The interceptor rejecting the new calls with RESOURCE_EXHAUSTED while too many tasks wait for a thread of the
+ * executor of the calls.
+ * <p>
+ * The queue of the executor itself stays unbounded: gRPC runs every event of a call (start, messages, half close)
+ * through it, and a rejected task fails the stream from the transport thread instead of closing it with a status. The
+ * calls already started keep going; only the new ones are shed (counted in executor.shed).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+public final class LoadSheddingInterceptor implements ServerInterceptor {
+
+    /**
+     * Number of calls rejected.
+     */
+    private final LongAdder shed = Metrics.counter("executor.shed");
+
+    /**
+     * The number of tasks waiting for a thread.
+     */
+    private final LongSupplier queued;
+
+    /**
+     * The max number of tasks waiting.
+     */
+    private final long maxQueued;
+
+    /**
+     * The Constructor.
+     *
+     * @param queued    the number of tasks waiting for a thread.
+     * @param maxQueued the max number of tasks waiting.
+     */
+    public LoadSheddingInterceptor(@NonNull LongSupplier queued, long maxQueued) {
+        this.queued = queued;
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Intercept the call.
+     *
+     * @param call    to check.
+     * @param headers of the call.
+     * @param next    handler.
+     * @return the listener.
+     */
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        // Too many waiting -> get out of here!
+        long queued = this.queued.getAsLong();
+        if (queued >= this.maxQueued) {
+            this.shed.increment();
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription("Server overloaded (" + queued + " waiting)"),
+                    new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        return next.startCall(call, headers);
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.ServerChannel;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollServerSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.grpc.netty.shaded.io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Netty transport: the event loops (epoll or nio) and the server builder with the settings of the
+ * {@link TransportConfig}.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class NettyTransport {
+
+    /**
+     * The configuration.
+     */
+    @Getter
+    private final TransportConfig config;
+
+    /**
+     * True if using the native epoll transport.
+     */
+    @Getter
+    private final boolean epoll;
+
+    /**
+     * The threads accepting connections.
+     */
+    private final EventLoopGroup bossGroup;
+
+    /**
+     * The threads doing the I/O.
+     */
+    private final EventLoopGroup workerGroup;
+
+    /**
+     * The type of the server channel.
+     */
+    private final Class<? extends ServerChannel> channelType;
+
+    /**
+     * The Constructor.
+     *
+     * @param config to use.
+     */
+    public NettyTransport(@NonNull TransportConfig config) {
+        this.config = config;
+        this.epoll = config.isEpoll() && Epoll.isAvailable();
+        if (config.isEpoll() && !this.epoll) {
+            log.warn("Epoll not available, using nio: {}", Epoll.unavailabilityCause().getMessage());
+        }
+
+        DefaultThreadFactory bossFactory = new DefaultThreadFactory("fivet-boss", true);
+        DefaultThreadFactory workerFactory = new DefaultThreadFactory("fivet-worker", true);
+        if (this.epoll) {
+            this.bossGroup = new EpollEventLoopGroup(config.getBossThreads(), bossFactory);
+            this.workerGroup = new EpollEventLoopGroup(config.getWorkerThreads(), workerFactory);
+            this.channelType = EpollServerSocketChannel.class;
+        } else {
+            this.bossGroup = new NioEventLoopGroup(config.getBossThreads(), bossFactory);
+            this.workerGroup = new NioEventLoopGroup(config.getWorkerThreads(), workerFactory);
+            this.channelType = NioServerSocketChannel.class;
+        }
+    }
+
+    /**
+     * Build the server builder.
+     *
+     * @param port to listen.
+     * @return the NettyServerBuilder.
+     */
+    public NettyServerBuilder serverBuilder(int port) {
+        NettyServerBuilder builder = NettyServerBuilder.forPort(port)
+                .bossEventLoopGroup(this.bossGroup)
+                .workerEventLoopGroup(this.workerGroup)
+                .channelType(this.channelType)
+                .flowControlWindow(this.config.getFlowControlWindow())
+                .maxConcurrentCallsPerConnection(this.config.getMaxConcurrentCallsPerConnection())
+                .maxInboundMessageSize(this.config.getMaxInboundMessageSize())
+                .keepAliveTime(this.config.getKeepAliveTimeSeconds(), TimeUnit.SECONDS)
+                .keepAliveTimeout(this.config.getKeepAliveTimeoutSeconds(), TimeUnit.SECONDS)
+                .permitKeepAliveTime(this.config.getPermitKeepAliveTimeSeconds(), TimeUnit.SECONDS);
+
+        // 0 -> infinite (the default)
+        if (this.config.getMaxConnectionAgeSeconds() > 0) {
+            builder.maxConnectionAge(this.config.getMaxConnectionAgeSeconds(), TimeUnit.SECONDS);
+        }
+        if (this.config.getMaxConnectionAgeGraceSeconds() > 0) {
+            builder.maxConnectionAgeGrace(this.config.getMaxConnectionAgeGraceSeconds(), TimeUnit.SECONDS);
+        }
+        if (this.config.getMaxConnectionIdleSeconds() > 0) {
+            builder.maxConnectionIdle(this.config.getMaxConnectionIdleSeconds(), TimeUnit.SECONDS);
+        }
+
+        log.info("Transport: port={}, {}, boss={}, worker={}, {}", port, this.epoll ? "epoll" : "nio",
+                threads(this.bossGroup), threads(this.workerGroup), this.config);
+        return builder;
+    }
+
+    /**
+     * Stop the event loops (after the server).
+     */
+    public void shutdown() {
+        this.bossGroup.shutdownGracefully();
+        this.workerGroup.shutdownGracefully();
+    }
+
+    /**
+     * @param group to count.
+     * @return the number of threads of the group.
+     */
+    private static int threads(EventLoopGroup group) {
+        int threads = 0;
+        for (var ignored : group) {
+            threads++;
+        }
+        return threads;
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.grpc.Persona;
+import cl.ucn.disc.pdis.fivet.metrics.Metrics;
+import cl.ucn.disc.pdis.fivet.orm.CacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * The cache of the serialized gRPC Personas (by id of the entity), written to the wire by {@link #MARSHALLER} without
+ * building nor encoding the message again.
+ * <p>
+ * The entries are dropped when the controller writes the Persona and expire after the ttl (the writes of other
+ * processes).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+final class PersonaBytesCache {
+
+    /**
+     * The marshaller of the serialized Personas (same wire format as the Persona marshaller).
+     */
+    static final MethodDescriptor.Marshaller<byte[]> MARSHALLER = new MethodDescriptor.Marshaller<>() {
+
+        @Override
+        public InputStream stream(byte[] value) {
+            return new BytesStream(value);
+        }
+
+        @SneakyThrows(IOException.class)
+        @Override
+        public byte[] parse(InputStream stream) {
+            return stream.readAllBytes();
+        }
+    };
+
+    /**
+     * The bytes by id.
+     */
+    private final Cache<Integer, byte[]> cache;
+
+    /**
+     * Number of hits.
+     */
+    private final LongAdder hits = Metrics.counter("responseCache.hits");
+
+    /**
+     * Number of misses.
+     */
+    private final LongAdder misses = Metrics.counter("responseCache.misses");
+
+    /**
+     * The Constructor.
+     *
+     * @param config to use.
+     */
+    PersonaBytesCache(@NonNull CacheConfig config) {
+        log.debug("Building the PersonaBytesCache: {}", config);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(config.getTtlSeconds()))
+                .build();
+    }
+
+    /**
+     * Get the serialized Persona (serialized once).
+     *
+     * @param persona to serialize.
+     * @param mapper  to the gRPC Persona.
+     * @return the bytes.
+     */
+    byte[] get(@NonNull cl.ucn.disc.pdis.fivet.model.Persona persona,
+               @NonNull Function<cl.ucn.disc.pdis.fivet.model.Persona, Persona> mapper) {
+        byte[] bytes = this.cache.getIfPresent(persona.getId());
+        if (bytes != null) {
+            this.hits.increment();
+            return bytes;
+        }
+        this.misses.increment();
+        bytes = mapper.apply(persona).toByteArray();
+        this.cache.put(persona.getId(), bytes);
+        return bytes;
+    }
+
+    /**
+     * Drop the serialized Persona.
+     *
+     * @param id of the Persona.
+     */
+    void invalidate(Integer id) {
+        if (id != null) {
+            this.cache.invalidate(id);
+        }
+    }
+
+    /**
+     * The stream of the bytes: the length is known and the framer drains them without copying to a buffer first.
+     */
+    private static final class BytesStream extends ByteArrayInputStream implements KnownLength, Drainable {
+
+        /**
+         * The Constructor.
+         *
+         * @param bytes to stream.
+         */
+        private BytesStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        /**
+         * Write the remaining bytes.
+         *
+         * @param target to write.
+         * @return the number of bytes written.
+         */
+        @Override
+        public int drainTo(OutputStream target) throws IOException {
+            int length = this.count - this.pos;
+            target.write(this.buf, this.pos, length);
+            this.pos = this.count;
+            return length;
+        }
+
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.orm.CacheConfig;
+import cl.ucn.disc.pdis.fivet.ratelimit.RateLimitConfig;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The configuration of TheServer.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Builder
+@Getter
+@ToString
+public final class ServerConfig {
+
+    /**
+     * The port.
+     */
+    @Builder.Default
+    private final int port = 8080;
+
+    /**
+     * The executor of the calls.
+     */
+    @Builder.Default
+    private final ExecutorMode executorMode = ExecutorMode.CACHED;
+
+    /**
+     * The number of threads (FIXED and WORK_STEALING).
+     */
+    @Builder.Default
+    private final int threads = 2 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The max number of tasks waiting for a thread before the new calls are rejected with RESOURCE_EXHAUSTED (0 to
+     * disable).
+     */
+    @Builder.Default
+    private final int maxQueued = 1_000;
+
+    /**
+     * The transport.
+     */
+    @Builder.Default
+    private final TransportConfig transport = TransportConfig.builder().build();
+
+    /**
+     * The rate limits.
+     */
+    @Builder.Default
+    private final RateLimitConfig rateLimit = RateLimitConfig.builder().build();
+
+    /**
+     * The cache of the serialized Personas of autenticar.
+     */
+    @Builder.Default
+    private final CacheConfig responseCache = CacheConfig.builder().build();
+
+    /**
+     * The time (seconds) between reporting NOT_SERVING and the stop of new calls at shutdown (for the balancers to see
+     * it).
+     */
+    @Builder.Default
+    private final int shutdownDelay = 5;
+
+    /**
+     * The time (seconds) to drain the calls in flight at shutdown (cancelled after).
+     */
+    @Builder.Default
+    private final int shutdownGrace = 30;
+
+    /**
+     * The interval to log the metrics (seconds, 0 to disable).
+     */
+    @Builder.Default
+    private final int metricsInterval = 60;
+
+    /**
+     * Build the configuration from the System properties (-Dfivet.server.*).
+     *
+     * @return the ServerConfig.
+     */
+    public static ServerConfig fromSystemProperties() {
+        ServerConfig defaults = ServerConfig.builder().build();
+        return ServerConfig.builder()
+                .port(Integer.getInteger("fivet.server.port", defaults.port))
+                .executorMode(ExecutorMode.valueOf(System.getProperty("fivet.server.executor",
+                        defaults.executorMode.name())))
+                .threads(Integer.getInteger("fivet.server.threads", defaults.threads))
+                .maxQueued(Integer.getInteger("fivet.server.maxQueued", defaults.maxQueued))
+                .transport(TransportConfig.fromSystemProperties())
+                .rateLimit(RateLimitConfig.fromSystemProperties())
+                .responseCache(CacheConfig.fromSystemProperties("fivet.responseCache"))
+                .shutdownDelay(Integer.getInteger("fivet.server.shutdownDelay", defaults.shutdownDelay))
+                .shutdownGrace(Integer.getInteger("fivet.server.shutdownGrace", defaults.shutdownGrace))
+                .metricsInterval(Integer.getInteger("fivet.server.metricsInterval", defaults.metricsInterval))
+                .build();
+    }
+
+}
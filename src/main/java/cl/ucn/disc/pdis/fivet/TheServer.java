@@ -23,18 +23,62 @@
 
 package cl.ucn.disc.pdis.fivet;
 
+import cl.ucn.disc.pdis.fivet.grpc.BuscarPersonas;
 import cl.ucn.disc.pdis.fivet.grpc.Credencial;
+import cl.ucn.disc.pdis.fivet.grpc.ErrorImportacion;
+import cl.ucn.disc.pdis.fivet.grpc.Estadisticas;
 import cl.ucn.disc.pdis.fivet.grpc.FivetServiceGrpc;
+import cl.ucn.disc.pdis.fivet.grpc.ListarPersonas;
 import cl.ucn.disc.pdis.fivet.grpc.Persona;
+import cl.ucn.disc.pdis.fivet.grpc.PersonasEncontradas;
+import cl.ucn.disc.pdis.fivet.grpc.RegistroPersona;
+import cl.ucn.disc.pdis.fivet.grpc.RespuestaAutenticacion;
+import cl.ucn.disc.pdis.fivet.grpc.ResultadoImportacion;
+import cl.ucn.disc.pdis.fivet.grpc.SolicitudAutenticacion;
+import cl.ucn.disc.pdis.fivet.grpc.SolicitudEstadisticas;
+import cl.ucn.disc.pdis.fivet.grpc.Temporizador;
+import cl.ucn.disc.pdis.fivet.metrics.Metrics;
+import cl.ucn.disc.pdis.fivet.metrics.MetricsInterceptor;
+import cl.ucn.disc.pdis.fivet.metrics.Timer;
+import cl.ucn.disc.pdis.fivet.orm.CacheConfig;
+import cl.ucn.disc.pdis.fivet.ratelimit.RateLimitInterceptor;
+import cl.ucn.disc.pdis.fivet.ratelimit.RateLimiter;
+import cl.ucn.disc.pdis.fivet.services.BloomFilterMetrics;
+import cl.ucn.disc.pdis.fivet.services.ControllerConfig;
 import cl.ucn.disc.pdis.fivet.services.FivetController;
 import cl.ucn.disc.pdis.fivet.services.FivetControllerImpl;
+import cl.ucn.disc.pdis.fivet.services.OverloadedException;
+import io.grpc.MethodDescriptor;
 import io.grpc.Server;
-import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.ServerMethodDefinition;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.health.v1.HealthCheckResponse.ServingStatus;
+import io.grpc.protobuf.services.HealthStatusManager;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.ServerCalls;
 import io.grpc.stub.StreamObserver;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * The Server of Fivet.
@@ -50,17 +94,76 @@ public final class TheServer {
     @SneakyThrows
     public static void main(String[] args) {
 
+        ServerConfig config = ServerConfig.fromSystemProperties();
+
         log.debug("Building the FivetServiceImpl ..");
-        FivetServiceImpl fivetService = new FivetServiceImpl("jdbc:h2:mem:fivet");
+        ControllerConfig controllerConfig = ControllerConfig.fromSystemProperties("jdbc:h2:mem:fivet");
+        FivetControllerImpl controller = new FivetControllerImpl(controllerConfig,
+                controllerConfig.getDatabase().isReset());
+        FivetServiceImpl fivetService = new FivetServiceImpl(controller, config.getResponseCache());
+        Metrics.gauge("hashing.queueDepth", () -> controller.getHashingMetrics().getQueueDepth());
+        Metrics.gauge("hashing.rejected", () -> controller.getHashingMetrics().getRejected());
+        Metrics.gauge("db.executor.queueDepth", controller::getDatabaseQueueDepth);
+        if (controller.getLoginFilterMetrics().isPresent()) {
+            Metrics.gauge("loginFilter.negatives",
+                    () -> controller.getLoginFilterMetrics().map(BloomFilterMetrics::getNegatives).orElse(0L));
+        }
 
-        log.debug("Building and Starting The Server ..");
+        log.debug("Building and Starting The Server: {} ..", config);
+
+        // The executor of the calls
+        InstrumentedExecutor executor = new InstrumentedExecutor(config.getExecutorMode(), config.getThreads());
+        Metrics.gauge("executor.active", () -> executor.getMetrics().getActive());
+        Metrics.gauge("executor.queued", () -> executor.getMetrics().getQueued());
+
+        // The dump of the metrics
+        if (config.getMetricsInterval() > 0) {
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "fivet-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleAtFixedRate(() -> log.info("Executor: {}\n{}", executor.getMetrics(), Metrics.dump()),
+                    config.getMetricsInterval(), config.getMetricsInterval(), TimeUnit.SECONDS);
+        }
+
+        // The interceptors (the last one runs first: the metrics see the rejected calls)
+        List<ServerInterceptor> interceptors = new ArrayList<>();
+        if (config.getRateLimit().isEnabled()) {
+            RateLimiter limiter = new RateLimiter(config.getRateLimit());
+            Metrics.gauge("ratelimit.peer.keys", limiter::getPeerKeys);
+            Metrics.gauge("ratelimit.login.keys", limiter::getLoginKeys);
+            interceptors.add(new RateLimitInterceptor(limiter));
+        }
+        if (config.getMaxQueued() > 0) {
+            interceptors.add(new LoadSheddingInterceptor(executor::getQueued, config.getMaxQueued()));
+        }
+        interceptors.add(new MetricsInterceptor());
+
+        // The readiness: NOT_SERVING until warmed up
+        HealthStatusManager health = new HealthStatusManager();
+        health.setStatus(HealthStatusManager.SERVICE_NAME_ALL_SERVICES, ServingStatus.NOT_SERVING);
+        health.setStatus(FivetServiceGrpc.SERVICE_NAME, ServingStatus.NOT_SERVING);
 
         // Build and start the server
-        Server server = ServerBuilder.forPort(8080)
-                .addService(fivetService)
+        NettyTransport transport = new NettyTransport(config.getTransport());
+        Server server = transport.serverBuilder(config.getPort())
+                .executor(executor)
+                .addService(ServerInterceptors.intercept(fivetService.toServiceDefinition(), interceptors))
+                .addService(health.getHealthService())
                 .build()
                 .start();
 
+        // SIGTERM / Ctrl+C: drain the calls in flight
+        Runtime.getRuntime().addShutdownHook(new Thread(
+                () -> drain(config, server, health, executor, transport::shutdown, controller), "fivet-shutdown"));
+
+        // Warm up, then ready
+        long warmUp = controller.warmUp();
+        health.setStatus(HealthStatusManager.SERVICE_NAME_ALL_SERVICES, ServingStatus.SERVING);
+        health.setStatus(FivetServiceGrpc.SERVICE_NAME, ServingStatus.SERVING);
+        log.info("Ready on port {} (warm-up: {}ms).", config.getPort(), warmUp);
+
         // Awaits
         server.awaitTermination();
 
@@ -68,54 +171,757 @@ public final class TheServer {
 
     }
 
+    /**
+     * Graceful shutdown: report NOT_SERVING, keep taking calls for the shutdown delay (while the balancers see the
+     * status), stop taking calls and wait for the ones in flight (cancelled after the grace time), then stop the
+     * executor and close the resources (i.e. the transport and the controller).
+     *
+     * @param config    of the server.
+     * @param server    to stop.
+     * @param health    to report.
+     * @param executor  of the calls.
+     * @param resources to close (in order).
+     */
+    static void drain(ServerConfig config, Server server, HealthStatusManager health, ExecutorService executor,
+                      AutoCloseable... resources) {
+        long start = System.nanoTime();
+        log.info("Shutting down: draining the calls in flight (delay: {}s, grace: {}s) ..", config.getShutdownDelay(),
+                config.getShutdownGrace());
+        health.enterTerminalState();
+        try {
+            TimeUnit.SECONDS.sleep(config.getShutdownDelay());
+            server.shutdown();
+            if (!server.awaitTermination(config.getShutdownGrace(), TimeUnit.SECONDS)) {
+                log.warn("Calls still in flight after {}s, cancelling them.", config.getShutdownGrace());
+                server.shutdownNow();
+                server.awaitTermination(5, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            server.shutdownNow();
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            for (AutoCloseable resource : resources) {
+                try {
+                    resource.close();
+                } catch (Exception ex) {
+                    log.warn("Error closing {}: {}", resource, ex.getMessage());
+                }
+            }
+        }
+        log.info("Shut down in {}ms.", (System.nanoTime() - start) / 1_000_000);
+    }
+
     /**
      * The Fivet Implementation
      */
     @Slf4j
-    private static class FivetServiceImpl extends FivetServiceGrpc.FivetServiceImplBase {
+    static class FivetServiceImpl extends FivetServiceGrpc.FivetServiceImplBase {
+
+        /**
+         * The time of the mapping model -> gRPC.
+         */
+        private static final Timer MAPPING_TIMER = Metrics.timer("service.toGrpc");
+
+        /**
+         * The default size of the page in listarPersonas.
+         */
+        private static final int DEFAULT_PAGE_SIZE = 100;
+
+        /**
+         * The max size of the page in listarPersonas.
+         */
+        private static final int MAX_PAGE_SIZE = 1_000;
+
+        /**
+         * The size of the batch in importarPersonas.
+         */
+        private static final int IMPORT_BATCH_SIZE = 1_000;
+
+        /**
+         * The max number of logins in buscarPersonas.
+         */
+        private static final int MAX_LOGINS = 10_000;
+
+        /**
+         * The max number of verifications in progress (or waiting to be sent) by autenticarStream.
+         */
+        private static final int AUTHENTICATION_WINDOW = 64;
 
         /**
          * The Controller.
          */
         private final FivetController fivetController;
 
+        /**
+         * The cache of the serialized Personas (null if disabled).
+         */
+        private final PersonaBytesCache responseCache;
+
+        /**
+         * The FivetService.
+         *
+         * @param config to use.
+         */
+        public FivetServiceImpl(ControllerConfig config) {
+            this(config, CacheConfig.builder().build());
+        }
+
+        /**
+         * The FivetService.
+         *
+         * @param config        to use.
+         * @param responseCache the cache of the serialized Personas.
+         */
+        public FivetServiceImpl(ControllerConfig config, CacheConfig responseCache) {
+            this(new FivetControllerImpl(config, config.getDatabase().isReset()), responseCache);
+        }
+
         /**
          * The FivetService.
          *
-         * @param databaseUrl to use.
+         * @param fivetController to use.
          */
-        public FivetServiceImpl(String databaseUrl) {
-            this.fivetController = new FivetControllerImpl(databaseUrl, true);
+        FivetServiceImpl(FivetController fivetController) {
+            this(fivetController, CacheConfig.builder().build());
         }
 
         /**
-         * Authenticate.
+         * The FivetService.
+         *
+         * @param fivetController to use.
+         * @param responseCache   the cache of the serialized Personas.
+         */
+        FivetServiceImpl(FivetController fivetController, CacheConfig responseCache) {
+            this.fivetController = fivetController;
+            if (responseCache.isEnabled()) {
+                this.responseCache = new PersonaBytesCache(responseCache);
+                fivetController.addChangeListener(this.responseCache::invalidate);
+            } else {
+                this.responseCache = null;
+            }
+        }
+
+        /**
+         * The definition of the service: autenticar writes the cached bytes of the Persona (same wire format) if the
+         * cache is enabled.
+         *
+         * @return the ServerServiceDefinition.
+         */
+        ServerServiceDefinition toServiceDefinition() {
+            ServerServiceDefinition definition = this.bindService();
+            if (this.responseCache == null) {
+                return definition;
+            }
+
+            MethodDescriptor<Credencial, Persona> autenticar = FivetServiceGrpc.getAutenticarMethod();
+            ServerServiceDefinition.Builder builder = ServerServiceDefinition.builder(
+                    definition.getServiceDescriptor().getName());
+            for (ServerMethodDefinition<?, ?> method : definition.getMethods()) {
+                if (autenticar.getFullMethodName().equals(method.getMethodDescriptor().getFullMethodName())) {
+                    builder.addMethod(autenticar.toBuilder(autenticar.getRequestMarshaller(),
+                                    PersonaBytesCache.MARSHALLER).build(),
+                            ServerCalls.asyncUnaryCall(this::autenticarBytes));
+                } else {
+                    builder.addMethod(method);
+                }
+            }
+            return builder.build();
+        }
+
+        /**
+         * Authenticate (without blocking the gRPC thread).
          *
          * @param request
          * @param responseObserver
          */
         @Override
         public void autenticar(Credencial request, StreamObserver<Persona> responseObserver) {
-            // Retrieve from Controller
-            Optional<cl.ucn.disc.pdis.fivet.model.Persona> persona = this.fivetController.retrieveByLogin(request.getLogin());
-            if (persona.isPresent()) {
-                // Return the observer
-                responseObserver.onNext(Persona.newBuilder()
-                        .setRut(persona.get().getRut())
-                        .setNombre(persona.get().getNombre())
-                        .setEmail(persona.get().getEmail())
-                        .setDireccion(persona.get().getDireccion())
-                        .build());
-                responseObserver.onCompleted();
-            } else {
-                responseObserver.onNext(Persona.newBuilder()
-                        .setRut("130144918")
-                        .setNombre("Diego Urrutia Astorga")
-                        .setEmail("durrutia@ucn.cl")
-                        .setDireccion("angamos #0610")
-                        .build());
-                responseObserver.onCompleted();
-                // responseObserver.onError(new RuntimeException("Persona Not Found!"));
+            this.authenticate(request, responseObserver, FivetServiceImpl::toGrpc);
+        }
+
+        /**
+         * Authenticate, answering with the serialized Persona (built and encoded once).
+         *
+         * @param request          with the credential.
+         * @param responseObserver to send the bytes of the Persona.
+         */
+        void autenticarBytes(Credencial request, StreamObserver<byte[]> responseObserver) {
+            this.authenticate(request, responseObserver, persona -> this.responseCache.get(persona,
+                    FivetServiceImpl::toGrpc));
+        }
+
+        /**
+         * Authenticate in the Controller.
+         *
+         * @param request          with the credential.
+         * @param responseObserver to send the Persona.
+         * @param mapper           of the Persona to the response.
+         * @param <R>              type of the response.
+         */
+        private <R> void authenticate(Credencial request, StreamObserver<R> responseObserver,
+                                      Function<cl.ucn.disc.pdis.fivet.model.Persona, R> mapper) {
+            // Authenticate in the Controller
+            this.fivetController.authenticateAsync(request.getLogin(), request.getPassword())
+                    .whenComplete((persona, ex) -> {
+                        if (ex != null) {
+                            responseObserver.onError(toStatus(ex).asRuntimeException());
+                        } else if (persona.isPresent()) {
+                            // Return the observer
+                            responseObserver.onNext(mapper.apply(persona.get()));
+                            responseObserver.onCompleted();
+                        } else {
+                            responseObserver.onError(Status.UNAUTHENTICATED
+                                    .withDescription("Wrong login or password")
+                                    .asRuntimeException());
+                        }
+                    });
+        }
+
+        /**
+         * List all the Personas, page by page, following the flow control of the client.
+         *
+         * @param request          with the size of the page.
+         * @param responseObserver to use.
+         */
+        @Override
+        public void listarPersonas(ListarPersonas request, StreamObserver<Persona> responseObserver) {
+            int pageSize = request.getPageSize() > 0
+                    ? Math.min(request.getPageSize(), MAX_PAGE_SIZE)
+                    : DEFAULT_PAGE_SIZE;
+
+            ServerCallStreamObserver<Persona> observer = (ServerCallStreamObserver<Persona>) responseObserver;
+            observer.setOnCancelHandler(() -> log.debug("listarPersonas cancelled by the client."));
+            observer.setOnReadyHandler(new PersonaStreamer(this.fivetController, observer, pageSize));
+        }
+
+        /**
+         * Import many Personas: saved in batches (one transaction each) with the passwords hashed in parallel.
+         *
+         * @param responseObserver to send the result.
+         * @return the observer of the Personas to import.
+         */
+        @Override
+        public StreamObserver<RegistroPersona> importarPersonas(StreamObserver<ResultadoImportacion> responseObserver) {
+            return new PersonaImporter(this.fivetController, responseObserver);
+        }
+
+        /**
+         * Find many Personas by login (rut or email) in one round trip to the database.
+         *
+         * @param request          with the logins.
+         * @param responseObserver to send the Personas found.
+         */
+        @Override
+        public void buscarPersonas(BuscarPersonas request, StreamObserver<PersonasEncontradas> responseObserver) {
+            if (request.getLoginsCount() > MAX_LOGINS) {
+                responseObserver.onError(Status.INVALID_ARGUMENT
+                        .withDescription("Too many logins: " + request.getLoginsCount() + " > " + MAX_LOGINS)
+                        .asRuntimeException());
+                return;
+            }
+
+            PersonasEncontradas.Builder encontradas = PersonasEncontradas.newBuilder();
+            try {
+                for (cl.ucn.disc.pdis.fivet.model.Persona persona :
+                        this.fivetController.retrieveByLogins(request.getLoginsList())) {
+                    encontradas.addPersonas(toGrpc(persona));
+                }
+            } catch (Exception ex) {
+                responseObserver.onError(toStatus(ex).asRuntimeException());
+                return;
+            }
+            responseObserver.onNext(encontradas.build());
+            responseObserver.onCompleted();
+        }
+
+        /**
+         * Authenticate a stream of credentials, answering (out of order) as each verification finishes.
+         *
+         * @param responseObserver to send the results.
+         * @return the observer of the credentials.
+         */
+        @Override
+        public StreamObserver<SolicitudAutenticacion> autenticarStream(
+                StreamObserver<RespuestaAutenticacion> responseObserver) {
+            return new AuthenticationStream(this.fivetController,
+                    (ServerCallStreamObserver<RespuestaAutenticacion>) responseObserver);
+        }
+
+        /**
+         * The metrics of the server.
+         *
+         * @param request          (empty).
+         * @param responseObserver to use.
+         */
+        @Override
+        public void estadisticas(SolicitudEstadisticas request, StreamObserver<Estadisticas> responseObserver) {
+            Estadisticas.Builder estadisticas = Estadisticas.newBuilder();
+            Metrics.timers().values().forEach(timer -> estadisticas.addTemporizadores(Temporizador.newBuilder()
+                    .setNombre(timer.getName())
+                    .setTotal(timer.getCount())
+                    .setMediaMs(timer.getMeanMillis())
+                    .setP50Ms(timer.getP50Millis())
+                    .setP99Ms(timer.getP99Millis())
+                    .setP999Ms(timer.getP999Millis())
+                    .setMaxMs(timer.getMaxMillis())
+                    .build()));
+            estadisticas.putAllContadores(Metrics.counters());
+            responseObserver.onNext(estadisticas.build());
+            responseObserver.onCompleted();
+        }
+
+        /**
+         * Error to gRPC Status.
+         *
+         * @param throwable to convert (the cause if it's a CompletionException).
+         * @return the Status.
+         */
+        private static Status toStatus(Throwable throwable) {
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause()
+                    : throwable;
+            if (cause instanceof OverloadedException) {
+                // Fail fast: the backend is full
+                return Status.RESOURCE_EXHAUSTED.withDescription(cause.getMessage());
+            }
+            log.error("Error", cause);
+            return Status.INTERNAL.withDescription(cause.getMessage()).withCause(cause);
+        }
+
+        /**
+         * Model to gRPC Persona.
+         *
+         * @param persona to convert.
+         * @return the gRPC Persona.
+         */
+        private static Persona toGrpc(cl.ucn.disc.pdis.fivet.model.Persona persona) {
+            long start = System.nanoTime();
+            try {
+                return Persona.newBuilder()
+                        .setRut(persona.getRut())
+                        .setNombre(persona.getNombre())
+                        .setEmail(persona.getEmail())
+                        .setDireccion(Objects.requireNonNullElse(persona.getDireccion(), ""))
+                        .build();
+            } finally {
+                MAPPING_TIMER.recordSince(start);
+            }
+        }
+
+        /**
+         * gRPC to model Persona.
+         *
+         * @param persona to convert.
+         * @return the model Persona.
+         */
+        private static cl.ucn.disc.pdis.fivet.model.Persona toModel(Persona persona) {
+            return cl.ucn.disc.pdis.fivet.model.Persona.builder()
+                    .rut(persona.getRut())
+                    .nombre(persona.getNombre())
+                    .email(persona.getEmail())
+                    .direccion(persona.getDireccion())
+                    .build();
+        }
+
+        /**
+         * Receives the Personas to import and saves them in batches. Only one batch is requested from the client at
+         * time: the batch is hashed and saved by the pools of the controller (not in onNext) and the next one is
+         * requested when it is done.
+         */
+        private static final class PersonaImporter implements StreamObserver<RegistroPersona> {
+
+            /**
+             * The Controller.
+             */
+            private final FivetController fivetController;
+
+            /**
+             * The Observer of the result.
+             */
+            private final ServerCallStreamObserver<ResultadoImportacion> responseObserver;
+
+            /**
+             * The current batch of Personas.
+             */
+            private List<cl.ucn.disc.pdis.fivet.model.Persona> personas = new ArrayList<>();
+
+            /**
+             * The current batch of passwords.
+             */
+            private List<String> passwords = new ArrayList<>();
+
+            /**
+             * The result.
+             */
+            private final ResultadoImportacion.Builder result = ResultadoImportacion.newBuilder();
+
+            /**
+             * A batch is being saved?
+             */
+            private boolean saving;
+
+            /**
+             * True if the client sent all the Personas.
+             */
+            private boolean halfClosed;
+
+            /**
+             * True if the stream is finished (completed, failed or cancelled).
+             */
+            private boolean finished;
+
+            /**
+             * The Constructor.
+             *
+             * @param fivetController  to use.
+             * @param responseObserver to use.
+             */
+            private PersonaImporter(FivetController fivetController,
+                                    StreamObserver<ResultadoImportacion> responseObserver) {
+                this.fivetController = fivetController;
+                this.responseObserver = (ServerCallStreamObserver<ResultadoImportacion>) responseObserver;
+                this.responseObserver.disableAutoInboundFlowControl();
+                this.responseObserver.request(IMPORT_BATCH_SIZE);
+            }
+
+            @Override
+            public synchronized void onNext(RegistroPersona registro) {
+                if (this.finished) {
+                    return;
+                }
+                this.personas.add(toModel(registro.getPersona()));
+                this.passwords.add(registro.getPassword());
+                if (this.personas.size() >= IMPORT_BATCH_SIZE) {
+                    this.save();
+                }
+            }
+
+            @Override
+            public synchronized void onError(Throwable throwable) {
+                this.finished = true;
+                log.warn("importarPersonas cancelled after {} Personas: {}", this.result.getTotal(),
+                        throwable.getMessage());
+            }
+
+            @Override
+            public synchronized void onCompleted() {
+                this.halfClosed = true;
+                if (!this.saving) {
+                    this.finish();
+                }
+            }
+
+            /**
+             * Hand the current batch to the controller. When saved, request the next batch (or finish).
+             */
+            private void save() {
+                List<cl.ucn.disc.pdis.fivet.model.Persona> batch = this.personas;
+                List<String> batchPasswords = this.passwords;
+                this.personas = new ArrayList<>();
+                this.passwords = new ArrayList<>();
+                this.saving = true;
+
+                CompletableFuture<Map<Integer, String>> saved;
+                try {
+                    saved = this.fivetController.addAllAsync(batch, batchPasswords);
+                } catch (RuntimeException ex) {
+                    saved = CompletableFuture.failedFuture(ex);
+                }
+                saved.whenComplete((errors, ex) -> this.saved(batch, errors, ex));
+            }
+
+            /**
+             * A batch was saved (or failed).
+             *
+             * @param batch  saved.
+             * @param errors position in the batch -> message.
+             * @param ex     the error (null if saved).
+             */
+            private synchronized void saved(List<cl.ucn.disc.pdis.fivet.model.Persona> batch,
+                                            Map<Integer, String> errors, Throwable ex) {
+                this.saving = false;
+                if (this.finished) {
+                    return;
+                }
+                if (ex != null) {
+                    this.finished = true;
+                    this.responseObserver.onError(toStatus(ex).asRuntimeException());
+                    return;
+                }
+
+                int offset = this.result.getTotal();
+                errors.forEach((index, message) -> this.result.addErrores(ErrorImportacion.newBuilder()
+                        .setIndice(offset + index)
+                        .setRut(batch.get(index).getRut())
+                        .setMensaje(Objects.requireNonNullElse(message, "Unknown error"))
+                        .build()));
+                this.result.setTotal(offset + batch.size());
+                this.result.setImportadas(this.result.getImportadas() + batch.size() - errors.size());
+                log.debug("importarPersonas progress: {} imported, {} errors.", this.result.getImportadas(),
+                        this.result.getErroresCount());
+
+                if (this.halfClosed) {
+                    this.finish();
+                } else {
+                    this.responseObserver.request(IMPORT_BATCH_SIZE);
+                }
+            }
+
+            /**
+             * Save the last (partial) batch, then send the result.
+             */
+            private void finish() {
+                if (this.finished) {
+                    return;
+                }
+                if (!this.personas.isEmpty()) {
+                    this.save();
+                    return;
+                }
+                this.finished = true;
+                log.info("importarPersonas done: {} of {} imported.", this.result.getImportadas(),
+                        this.result.getTotal());
+                this.responseObserver.onNext(this.result.build());
+                this.responseObserver.onCompleted();
+            }
+        }
+
+        /**
+         * Verifies the credentials of the stream concurrently. Only {@link #AUTHENTICATION_WINDOW} credentials are
+         * requested from the client at time: one more after each result sent, and the results are sent only when the
+         * transport is ready (the rest wait in a queue).
+         */
+        private static final class AuthenticationStream implements StreamObserver<SolicitudAutenticacion> {
+
+            /**
+             * The Controller.
+             */
+            private final FivetController fivetController;
+
+            /**
+             * The observer of the results.
+             */
+            private final ServerCallStreamObserver<RespuestaAutenticacion> observer;
+
+            /**
+             * The results waiting for the transport.
+             */
+            private final Queue<RespuestaAutenticacion> pending = new ConcurrentLinkedQueue<>();
+
+            /**
+             * The number of verifications in progress.
+             */
+            private final AtomicInteger inProgress = new AtomicInteger();
+
+            /**
+             * The limits by login (null if not limited).
+             */
+            private final RateLimiter limiter = RateLimitInterceptor.LIMITER.get();
+
+            /**
+             * True if the client sent all the credentials.
+             */
+            private volatile boolean halfClosed;
+
+            /**
+             * True if the stream is finished (completed, failed or cancelled).
+             */
+            private boolean finished;
+
+            /**
+             * The Constructor.
+             *
+             * @param fivetController to use.
+             * @param observer        to send the results.
+             */
+            private AuthenticationStream(FivetController fivetController,
+                                         ServerCallStreamObserver<RespuestaAutenticacion> observer) {
+                this.fivetController = fivetController;
+                this.observer = observer;
+                this.observer.disableAutoInboundFlowControl();
+                this.observer.setOnReadyHandler(this::drain);
+                this.observer.setOnCancelHandler(() -> {
+                    synchronized (this) {
+                        this.finished = true;
+                    }
+                    log.debug("autenticarStream cancelled by the client.");
+                });
+                this.observer.request(AUTHENTICATION_WINDOW);
+            }
+
+            /**
+             * Verify a credential.
+             *
+             * @param solicitud with the credential.
+             */
+            @Override
+            public void onNext(SolicitudAutenticacion solicitud) {
+                Credencial credencial = solicitud.getCredencial();
+
+                // Over the limit of the login -> answer without any work
+                if (this.limiter != null && !this.limiter.tryAcquireLogin(credencial.getLogin())) {
+                    this.pending.add(RespuestaAutenticacion.newBuilder()
+                            .setId(solicitud.getId())
+                            .setCodigo(Status.Code.RESOURCE_EXHAUSTED.value())
+                            .setMensaje("Too many attempts for the login")
+                            .build());
+                    this.drain();
+                    return;
+                }
+
+                this.inProgress.incrementAndGet();
+                this.fivetController.authenticateAsync(credencial.getLogin(), credencial.getPassword())
+                        .whenComplete((persona, ex) -> {
+                            RespuestaAutenticacion.Builder respuesta = RespuestaAutenticacion.newBuilder()
+                                    .setId(solicitud.getId());
+                            if (ex != null) {
+                                Status status = toStatus(ex);
+                                respuesta.setCodigo(status.getCode().value())
+                                        .setMensaje(Objects.requireNonNullElse(status.getDescription(), ""));
+                            } else if (persona.isPresent()) {
+                                respuesta.setAutenticado(true)
+                                        .setPersona(toGrpc(persona.get()))
+                                        .setCodigo(Status.Code.OK.value());
+                            } else {
+                                respuesta.setCodigo(Status.Code.UNAUTHENTICATED.value())
+                                        .setMensaje("Wrong login or password");
+                            }
+                            this.pending.add(respuesta.build());
+                            this.inProgress.decrementAndGet();
+                            this.drain();
+                        });
+            }
+
+            /**
+             * The client failed.
+             *
+             * @param throwable the error.
+             */
+            @Override
+            public void onError(Throwable throwable) {
+                synchronized (this) {
+                    this.finished = true;
+                }
+                log.warn("autenticarStream failed: {}", Status.fromThrowable(throwable));
+            }
+
+            /**
+             * The client sent all the credentials.
+             */
+            @Override
+            public void onCompleted() {
+                this.halfClosed = true;
+                this.drain();
+            }
+
+            /**
+             * Send the results while the transport is ready, requesting one credential per result. Complete the
+             * stream after the last result.
+             */
+            private synchronized void drain() {
+                if (this.finished) {
+                    return;
+                }
+
+                RespuestaAutenticacion respuesta;
+                while (this.observer.isReady() && (respuesta = this.pending.poll()) != null) {
+                    this.observer.onNext(respuesta);
+                    if (!this.halfClosed) {
+                        this.observer.request(1);
+                    }
+                }
+
+                // All the results sent -> done
+                if (this.halfClosed && this.inProgress.get() == 0 && this.pending.isEmpty()) {
+                    this.finished = true;
+                    this.observer.onCompleted();
+                }
+            }
+
+        }
+
+        /**
+         * Sends the Personas while the transport is ready, retrieving one page at time (only one page in memory).
+         */
+        private static final class PersonaStreamer implements Runnable {
+
+            /**
+             * The Controller.
+             */
+            private final FivetController fivetController;
+
+            /**
+             * The Observer.
+             */
+            private final ServerCallStreamObserver<Persona> observer;
+
+            /**
+             * The size of the page.
+             */
+            private final int pageSize;
+
+            /**
+             * The current page.
+             */
+            private Iterator<cl.ucn.disc.pdis.fivet.model.Persona> page = Collections.emptyIterator();
+
+            /**
+             * The last id sent.
+             */
+            private Integer lastId;
+
+            /**
+             * All sent?
+             */
+            private boolean done;
+
+            /**
+             * The Constructor.
+             *
+             * @param fivetController to use.
+             * @param observer        to use.
+             * @param pageSize        to use.
+             */
+            private PersonaStreamer(FivetController fivetController, ServerCallStreamObserver<Persona> observer,
+                                    int pageSize) {
+                this.fivetController = fivetController;
+                this.observer = observer;
+                this.pageSize = pageSize;
+            }
+
+            /**
+             * Called by gRPC (serialized) each time the transport is ready to send more.
+             */
+            @Override
+            public void run() {
+                try {
+                    while (!this.done && this.observer.isReady() && !this.observer.isCancelled()) {
+                        // Next page
+                        if (!this.page.hasNext()) {
+                            List<cl.ucn.disc.pdis.fivet.model.Persona> personas =
+                                    this.fivetController.retrievePage(this.lastId, this.pageSize);
+                            if (personas.isEmpty()) {
+                                this.done = true;
+                                this.observer.onCompleted();
+                                return;
+                            }
+                            this.page = personas.iterator();
+                        }
+
+                        cl.ucn.disc.pdis.fivet.model.Persona persona = this.page.next();
+                        this.lastId = persona.getId();
+                        this.observer.onNext(toGrpc(persona));
+                    }
+                } catch (RuntimeException ex) {
+                    log.error("Error in listarPersonas", ex);
+                    this.done = true;
+                    this.observer.onError(Status.INTERNAL.withDescription(ex.getMessage()).asRuntimeException());
+                }
             }
         }
     }
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The configuration of the (Netty) transport of TheServer.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Builder
+@Getter
+@ToString
+public final class TransportConfig {
+
+    /**
+     * Use the native epoll transport (if available).
+     */
+    @Builder.Default
+    private final boolean epoll = true;
+
+    /**
+     * The number of threads accepting connections.
+     */
+    @Builder.Default
+    private final int bossThreads = 1;
+
+    /**
+     * The number of threads doing the I/O (0 for the Netty default: 2 * processors).
+     */
+    @Builder.Default
+    private final int workerThreads = 0;
+
+    /**
+     * The HTTP/2 flow control window (bytes).
+     */
+    @Builder.Default
+    private final int flowControlWindow = 1024 * 1024;
+
+    /**
+     * The max number of concurrent calls per connection.
+     */
+    @Builder.Default
+    private final int maxConcurrentCallsPerConnection = Integer.MAX_VALUE;
+
+    /**
+     * The max size of a message received (bytes).
+     */
+    @Builder.Default
+    private final int maxInboundMessageSize = 4 * 1024 * 1024;
+
+    /**
+     * The time without reads before sending a keepalive ping (seconds).
+     */
+    @Builder.Default
+    private final long keepAliveTimeSeconds = 7200;
+
+    /**
+     * The time waiting for the keepalive ping ack (seconds).
+     */
+    @Builder.Default
+    private final long keepAliveTimeoutSeconds = 20;
+
+    /**
+     * The min time between keepalive pings of the clients (seconds).
+     */
+    @Builder.Default
+    private final long permitKeepAliveTimeSeconds = 300;
+
+    /**
+     * The max age of a connection, to move the clients to other nodes (seconds, 0 = infinite).
+     */
+    @Builder.Default
+    private final long maxConnectionAgeSeconds = 0;
+
+    /**
+     * The time for the calls to finish after the max age (seconds, 0 = infinite).
+     */
+    @Builder.Default
+    private final long maxConnectionAgeGraceSeconds = 0;
+
+    /**
+     * The max time of a connection without calls (seconds, 0 = infinite).
+     */
+    @Builder.Default
+    private final long maxConnectionIdleSeconds = 0;
+
+    /**
+     * Build the configuration from the System properties (-Dfivet.transport.*).
+     *
+     * @return the TransportConfig.
+     */
+    public static TransportConfig fromSystemProperties() {
+        TransportConfig defaults = TransportConfig.builder().build();
+        return TransportConfig.builder()
+                .epoll(Boolean.parseBoolean(System.getProperty("fivet.transport.epoll",
+                        String.valueOf(defaults.epoll))))
+                .bossThreads(Integer.getInteger("fivet.transport.bossThreads", defaults.bossThreads))
+                .workerThreads(Integer.getInteger("fivet.transport.workerThreads", defaults.workerThreads))
+                .flowControlWindow(Integer.getInteger("fivet.transport.flowControlWindow",
+                        defaults.flowControlWindow))
+                .maxConcurrentCallsPerConnection(Integer.getInteger("fivet.transport.maxConcurrentCalls",
+                        defaults.maxConcurrentCallsPerConnection))
+                .maxInboundMessageSize(Integer.getInteger("fivet.transport.maxInboundMessageSize",
+                        defaults.maxInboundMessageSize))
+                .keepAliveTimeSeconds(Long.getLong("fivet.transport.keepAliveTime", defaults.keepAliveTimeSeconds))
+                .keepAliveTimeoutSeconds(Long.getLong("fivet.transport.keepAliveTimeout",
+                        defaults.keepAliveTimeoutSeconds))
+                .permitKeepAliveTimeSeconds(Long.getLong("fivet.transport.permitKeepAliveTime",
+                        defaults.permitKeepAliveTimeSeconds))
+                .maxConnectionAgeSeconds(Long.getLong("fivet.transport.maxConnectionAge",
+                        defaults.maxConnectionAgeSeconds))
+                .maxConnectionAgeGraceSeconds(Long.getLong("fivet.transport.maxConnectionAgeGrace",
+                        defaults.maxConnectionAgeGraceSeconds))
+                .maxConnectionIdleSeconds(Long.getLong("fivet.transport.maxConnectionIdle",
+                        defaults.maxConnectionIdleSeconds))
+                .build();
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.metrics;
+
+import lombok.NonNull;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * The registry of the metrics of the process: timers, counters and gauges by name.
+ * <p>
+ * The lookup of an existing metric is a lock-free read of a ConcurrentHashMap; timers and counters record without
+ * locks (HdrHistogram and LongAdder).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+public final class Metrics {
+
+    /**
+     * The timers.
+     */
+    private static final ConcurrentMap<String, Timer> TIMERS = new ConcurrentHashMap<>();
+
+    /**
+     * The counters.
+     */
+    private static final ConcurrentMap<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+
+    /**
+     * The gauges.
+     */
+    private static final ConcurrentMap<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+
+    /**
+     * The private constructor.
+     */
+    private Metrics() {
+        // Nothing here
+    }
+
+    /**
+     * @param name of the timer.
+     * @return the timer (created if needed).
+     */
+    public static Timer timer(@NonNull String name) {
+        Timer timer = TIMERS.get(name);
+        return timer != null ? timer : TIMERS.computeIfAbsent(name, Timer::new);
+    }
+
+    /**
+     * @param name of the counter.
+     * @return the counter (created if needed).
+     */
+    public static LongAdder counter(@NonNull String name) {
+        LongAdder counter = COUNTERS.get(name);
+        return counter != null ? counter : COUNTERS.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Register a gauge (replaces the previous one with the same name).
+     *
+     * @param name  of the gauge.
+     * @param gauge to read the value.
+     */
+    public static void gauge(@NonNull String name, @NonNull LongSupplier gauge) {
+        GAUGES.put(name, gauge);
+    }
+
+    /**
+     * @return the snapshot of all the timers (ordered by name).
+     */
+    public static Map<String, TimerSnapshot> timers() {
+        Map<String, TimerSnapshot> timers = new TreeMap<>();
+        TIMERS.forEach((name, timer) -> timers.put(name, timer.snapshot()));
+        return timers;
+    }
+
+    /**
+     * @return the values of all the counters and gauges (ordered by name).
+     */
+    public static Map<String, Long> counters() {
+        Map<String, Long> counters = new TreeMap<>();
+        COUNTERS.forEach((name, counter) -> counters.put(name, counter.sum()));
+        GAUGES.forEach((name, gauge) -> counters.put(name, gauge.getAsLong()));
+        return counters;
+    }
+
+    /**
+     * @return the metrics as text (one line by metric).
+     */
+    public static String dump() {
+        StringBuilder sb = new StringBuilder();
+        timers().values().forEach(t -> sb.append(String.format(Locale.ROOT,
+                "%-40s count=%d mean=%.3fms p50=%.3fms p99=%.3fms p999=%.3fms max=%.3fms%n",
+                t.getName(), t.getCount(), t.getMeanMillis(), t.getP50Millis(), t.getP99Millis(),
+                t.getP999Millis(), t.getMaxMillis())));
+        counters().forEach((name, value) -> sb.append(String.format(Locale.ROOT, "%-40s %d%n", name, value)));
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.metrics;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The interceptor measuring each gRPC method: latency (grpc.method), in-flight calls (grpc.method.inflight) and the
+ * status codes (grpc.method.status.CODE).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+public final class MetricsInterceptor implements ServerInterceptor {
+
+    /**
+     * Intercept the call.
+     *
+     * @param call    to measure.
+     * @param headers of the call.
+     * @param next    handler.
+     * @return the listener.
+     */
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String method = "grpc." + call.getMethodDescriptor().getBareMethodName();
+        MeasuredCall<ReqT, RespT> measured = new MeasuredCall<>(call, method);
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(measured, headers)) {
+
+            /**
+             * The client cancelled the call.
+             */
+            @Override
+            public void onCancel() {
+                measured.done(Status.Code.CANCELLED);
+                super.onCancel();
+            }
+        };
+    }
+
+    /**
+     * The call recording the metrics when closed (or cancelled).
+     */
+    private static final class MeasuredCall<ReqT, RespT>
+            extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+        /**
+         * The name of the method.
+         */
+        private final String method;
+
+        /**
+         * The in-flight calls of the method.
+         */
+        private final LongAdder inflight;
+
+        /**
+         * The start of the call.
+         */
+        private final long start = System.nanoTime();
+
+        /**
+         * True if recorded.
+         */
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        /**
+         * The Constructor.
+         *
+         * @param call   to measure.
+         * @param method name.
+         */
+        private MeasuredCall(ServerCall<ReqT, RespT> call, String method) {
+            super(call);
+            this.method = method;
+            this.inflight = Metrics.counter(method + ".inflight");
+            this.inflight.increment();
+        }
+
+        /**
+         * Close the call.
+         *
+         * @param status   of the call.
+         * @param trailers of the call.
+         */
+        @Override
+        public void close(Status status, Metadata trailers) {
+            this.done(status.getCode());
+            super.close(status, trailers);
+        }
+
+        /**
+         * Record the metrics (only once).
+         *
+         * @param code of the call.
+         */
+        private void done(Status.Code code) {
+            if (this.recorded.compareAndSet(false, true)) {
+                Metrics.timer(this.method).recordSince(this.start);
+                Metrics.counter(this.method + ".status." + code).increment();
+                this.inflight.decrement();
+            }
+        }
+
+    }
+
+}
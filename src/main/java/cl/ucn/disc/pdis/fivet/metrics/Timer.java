@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.metrics;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The histogram of durations (microseconds precision, 3 significant digits). The record is wait-free.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+public final class Timer {
+
+    /**
+     * The name.
+     */
+    @Getter
+    private final String name;
+
+    /**
+     * The histogram (micros).
+     */
+    private final Histogram histogram = new ConcurrentHistogram(3);
+
+    /**
+     * The Constructor.
+     *
+     * @param name of the timer.
+     */
+    Timer(@NonNull String name) {
+        this.name = name;
+    }
+
+    /**
+     * Record a duration.
+     *
+     * @param nanos the duration.
+     */
+    public void record(long nanos) {
+        this.histogram.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    /**
+     * Record the duration from start to now.
+     *
+     * @param startNanos the start (System.nanoTime()).
+     */
+    public void recordSince(long startNanos) {
+        this.record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return the current values of the timer.
+     */
+    public TimerSnapshot snapshot() {
+        Histogram copy = this.histogram.copy();
+        return TimerSnapshot.builder()
+                .name(this.name)
+                .count(copy.getTotalCount())
+                .meanMillis(copy.getMean() / 1000.0)
+                .p50Millis(copy.getValueAtPercentile(50.0) / 1000.0)
+                .p99Millis(copy.getValueAtPercentile(99.0) / 1000.0)
+                .p999Millis(copy.getValueAtPercentile(99.9) / 1000.0)
+                .maxMillis(copy.getMaxValue() / 1000.0)
+                .build();
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.metrics;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The values of a Timer (a snapshot).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Builder
+@Getter
+@ToString
+public final class TimerSnapshot {
+
+    /**
+     * The name.
+     */
+    private final String name;
+
+    /**
+     * The number of durations.
+     */
+    private final long count;
+
+    /**
+     * The mean (ms).
+     */
+    private final double meanMillis;
+
+    /**
+     * The median (ms).
+     */
+    private final double p50Millis;
+
+    /**
+     * The percentile 99 (ms).
+     */
+    private final double p99Millis;
+
+    /**
+     * The percentile 99.9 (ms).
+     */
+    private final double p999Millis;
+
+    /**
+     * The max (ms).
+     */
+    private final double maxMillis;
+
+}
@@ -58,4 +58,11 @@ public abstract class BaseEntity {
     @DatabaseField(canBeNull = true)
     protected ZonedDateTime deletedAt;
 
+    /**
+     * True if loaded with only some of the columns (read-only, not persisted).
+     */
+    @Getter
+    @Setter
+    protected transient boolean projected;
+
 }
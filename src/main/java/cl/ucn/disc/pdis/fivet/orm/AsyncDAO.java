@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.orm;
+
+import cl.ucn.disc.pdis.fivet.model.BaseEntity;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The asynchronous DAO Interface: the queries run in the database executor.
+ * <p>
+ * The futures fail with a {@link DataAccessException} on database errors. If the executor is full the methods throw
+ * a {@link java.util.concurrent.RejectedExecutionException}.
+ *
+ * @param <T>
+ * @author Diego Urrutia-Astorga.
+ */
+public interface AsyncDAO<T extends BaseEntity> {
+
+    /**
+     * Get optional T.
+     *
+     * @param id to retrieve.
+     * @return the future optional T
+     */
+    CompletableFuture<Optional<T>> get(Integer id);
+
+    /**
+     * Get optional T by some attribute.
+     *
+     * @param attribute to filter.
+     * @param value     of attribute.
+     * @return the future optional T
+     */
+    CompletableFuture<Optional<T>> get(String attribute, Object value);
+
+    /**
+     * Get optional T where any of the attributes is equal to the value (in one query).
+     *
+     * @param attributes to filter.
+     * @param value      of the attributes.
+     * @return the future optional T
+     */
+    CompletableFuture<Optional<T>> getAny(List<String> attributes, Object value);
+
+    /**
+     * Get optional T where any of the attributes is equal to the value, loading only some columns.
+     *
+     * @param attributes to filter.
+     * @param value      of the attributes.
+     * @param projection the columns to load.
+     * @return the future optional T (read-only if projected).
+     */
+    CompletableFuture<Optional<T>> getAny(List<String> attributes, Object value, Projection projection);
+
+    /**
+     * Get a page of T (keyset pagination).
+     *
+     * @param afterId the last id of the previous page (null for the first page).
+     * @param size    of the page.
+     * @return the future page.
+     */
+    CompletableFuture<List<T>> getPage(Integer afterId, long size);
+
+    /**
+     * Save a T.
+     *
+     * @param t to save.
+     * @return the future completion.
+     */
+    CompletableFuture<Void> save(T t);
+
+    /**
+     * Update a T.
+     *
+     * @param t to update.
+     * @return the future completion.
+     */
+    CompletableFuture<Void> update(T t);
+
+    /**
+     * Delete a T.
+     *
+     * @param id of the T to delete.
+     * @return the future completion.
+     */
+    CompletableFuture<Void> delete(Integer id);
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet.orm;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The configuration of the cache of a DAO.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Builder
+@Getter
+@ToString
+public final class CacheConfig {
+
+    /**
+     * Use the cache?
+     */
+    @Builder.Default
+    private final boolean enabled = false;
+
+    /**
+     * The max number of entities in the cache.
+     */
+    @Builder.Default
+    private final long maxSize = 10_000;
+
+    /**
+     * The time (seconds) an entity stays in the cache after loaded.
+     */
+    @Builder.Default
+    private final long ttlSeconds = 600;
+
+    /**
+     * Build the configuration from the System properties (-D{prefix}.*).
+     *
+     * @param prefix of the properties (i.e. fivet.personaCache).
+     * @return the CacheConfig.
+     */
+    public static CacheConfig fromSystemProperties(String prefix) {
+        return CacheConfig.builder()
+                .enabled(Boolean.getBoolean(prefix))
+                .maxSize(Long.getLong(prefix + ".maxSize", 10_000L))
+                .ttlSeconds(Long.getLong(prefix + ".ttl", 600L))
+                .build();
+    }
+
+}
@@ -0,0 +1,458 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet.orm;
+
+import cl.ucn.disc.pdis.fivet.model.BaseEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The read-through cache of a DAO.
+ * <p>
+ * The entities are cached by id and by the unique attributes (i.e. rut, email) with a bounded, frequency-aware
+ * (W-TinyLFU) eviction. Any save, update or delete drops the entity from the cache. The entities returned are
+ * shared: update them only through this DAO.
+ * <p>
+ * A read that races with a write (the row read just before the write is cached just after the invalidation) is
+ * detected by a counter of invalidations and dropped; a stale entity is never kept longer than the TTL.
+ *
+ * @param <T> to parametrize.
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class CachingDAO<T extends BaseEntity> implements DAO<T> {
+
+    /**
+     * The DAO.
+     */
+    private final DAO<T> delegate;
+
+    /**
+     * The unique attributes to cache.
+     */
+    private final List<String> uniqueAttributes;
+
+    /**
+     * The entities by id.
+     */
+    private final Cache<Integer, T> byId;
+
+    /**
+     * The ids by attribute + value.
+     */
+    private final Cache<String, Integer> byAttribute;
+
+    /**
+     * The attribute + value keys by id (to invalidate them by key).
+     */
+    private final ConcurrentMap<Integer, Set<String>> keysById = new ConcurrentHashMap<>();
+
+    /**
+     * Number of invalidations (to detect the reads racing with a write).
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Number of hits.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Number of misses.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * The Constructor.
+     *
+     * @param delegate         to use.
+     * @param config           to use.
+     * @param uniqueAttributes to cache.
+     */
+    public CachingDAO(@NonNull DAO<T> delegate, @NonNull CacheConfig config, @NonNull List<String> uniqueAttributes) {
+        log.debug("Building the CachingDAO: {} by {}", config, uniqueAttributes);
+        this.delegate = delegate;
+        this.uniqueAttributes = List.copyOf(uniqueAttributes);
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(config.getTtlSeconds()))
+                .recordStats()
+                .evictionListener((Integer id, T t, RemovalCause cause) -> this.dropKeys(id))
+                .build();
+        this.byAttribute = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize() * Math.max(1, uniqueAttributes.size()))
+                .expireAfterWrite(Duration.ofSeconds(config.getTtlSeconds()))
+                .build();
+    }
+
+    /**
+     * Get optional T.
+     *
+     * @param id to retrieve.
+     */
+    @Override
+    public Optional<T> get(@NonNull Integer id) {
+        T t = this.byId.getIfPresent(id);
+        if (t != null) {
+            this.hits.increment();
+            return Optional.of(t);
+        }
+
+        this.misses.increment();
+        long version = this.invalidations.get();
+        Optional<T> oT = this.delegate.get(id);
+        oT.ifPresent(entity -> this.fill(entity, List.of(), version));
+        return oT;
+    }
+
+    /**
+     * Get optional T by some attribute.
+     *
+     * @param attribute to filter.
+     * @param value     of attribute.
+     * @return the optional T.
+     */
+    @Override
+    public Optional<T> get(@NonNull String attribute, Object value) {
+        return this.getAny(List.of(attribute), value);
+    }
+
+    /**
+     * Get optional T where any of the attributes is equal to the value (in one query).
+     *
+     * @param attributes to filter.
+     * @param value      of the attributes.
+     * @return the optional T.
+     */
+    @Override
+    public Optional<T> getAny(@NonNull List<String> attributes, Object value) {
+        // Not unique -> not cached
+        if (value == null || !this.uniqueAttributes.containsAll(attributes)) {
+            return this.delegate.getAny(attributes, value);
+        }
+
+        String key = String.join(",", attributes) + '\u0000' + value;
+        Integer id = this.byAttribute.getIfPresent(key);
+        if (id != null) {
+            T t = this.byId.getIfPresent(id);
+            if (t != null) {
+                this.hits.increment();
+                return Optional.of(t);
+            }
+        }
+
+        this.misses.increment();
+        long version = this.invalidations.get();
+        Optional<T> oT = this.delegate.getAny(attributes, value);
+        oT.ifPresent(entity -> this.fill(entity, List.of(key), version));
+        return oT;
+    }
+
+    /**
+     * Get optional T where any of the attributes is equal to the value, loading only some columns. By the unique
+     * attributes the full T is read (and cached) instead, so the next lookup is a hit; else the projected T (not
+     * cached).
+     *
+     * @param attributes to filter.
+     * @param value      of the attributes.
+     * @param projection the columns to load.
+     * @return the optional T.
+     */
+    @Override
+    public Optional<T> getAny(@NonNull List<String> attributes, Object value, @NonNull Projection projection) {
+        if (projection.isAll() || value != null && this.uniqueAttributes.containsAll(attributes)) {
+            return this.getAny(attributes, value);
+        }
+        return this.delegate.getAny(attributes, value, projection);
+    }
+
+    /**
+     * Get all the T (not cached).
+     */
+    @Override
+    public List<T> getAll() {
+        return this.delegate.getAll();
+    }
+
+    /**
+     * Get a page of T (not cached).
+     *
+     * @param afterId the last id of the previous page (null for the first page).
+     * @param size    of the page.
+     * @return the page (empty if there are no more T).
+     */
+    @Override
+    public List<T> getPage(Integer afterId, long size) {
+        return this.delegate.getPage(afterId, size);
+    }
+
+    /**
+     * Get a page of T, loading only some columns (not cached).
+     *
+     * @param afterId    the last id of the previous page (null for the first page).
+     * @param size       of the page.
+     * @param projection the columns to load.
+     * @return the page (empty if there are no more T).
+     */
+    @Override
+    public List<T> getPage(Integer afterId, long size, Projection projection) {
+        return this.delegate.getPage(afterId, size, projection);
+    }
+
+    /**
+     * Get the T where the attribute is equal to any of the values (not cached).
+     *
+     * @param attribute to filter.
+     * @param values    of the attribute.
+     * @return the T found.
+     */
+    @Override
+    public List<T> getIn(String attribute, Collection<?> values) {
+        return this.delegate.getIn(attribute, values);
+    }
+
+    /**
+     * Get the T where any of the attributes is equal to any of the values (not cached).
+     *
+     * @param attributes to filter.
+     * @param values     of the attributes.
+     * @return the T found.
+     */
+    @Override
+    public List<T> getAnyIn(List<String> attributes, Collection<?> values) {
+        return this.delegate.getAnyIn(attributes, values);
+    }
+
+    /**
+     * Get the T where any of the attributes is equal to any of the values, loading only some columns (not cached).
+     *
+     * @param attributes to filter.
+     * @param values     of the attributes.
+     * @param projection the columns to load.
+     * @return the T found.
+     */
+    @Override
+    public List<T> getAnyIn(List<String> attributes, Collection<?> values, Projection projection) {
+        return this.delegate.getAnyIn(attributes, values, projection);
+    }
+
+    /**
+     * Save T into the  T.
+     *
+     * @param t to save.
+     */
+    @Override
+    public void save(T t) {
+        this.delegate.save(t);
+        this.invalidate(t.getId());
+    }
+
+    /**
+     * Save all the T in one transaction (all or nothing).
+     *
+     * @param ts to save.
+     */
+    @Override
+    public void saveAll(Collection<T> ts) {
+        this.delegate.saveAll(ts);
+        ts.forEach(t -> this.invalidate(t.getId()));
+    }
+
+    /**
+     * Delete a T.
+     *
+     * @param t to delete.
+     */
+    @Override
+    public void delete(T t) {
+        this.delete(t.getId());
+    }
+
+    /**
+     * Delete a T.
+     *
+     * @param id to delete.
+     */
+    @Override
+    public void delete(Integer id) {
+        this.delegate.delete(id);
+        this.invalidate(id);
+    }
+
+    /**
+     * Update the T.
+     *
+     * @param t to update.
+     */
+    @Override
+    public void update(T t) {
+        try {
+            this.delegate.update(t);
+        } finally {
+            // Even on failure: the instance may have been changed before the update
+            this.invalidate(t.getId());
+        }
+    }
+
+    /**
+     * Update all the T in one transaction (all or nothing).
+     *
+     * @param ts to update.
+     */
+    @Override
+    public void updateAll(Collection<T> ts) {
+        try {
+            this.delegate.updateAll(ts);
+        } finally {
+            ts.forEach(t -> this.invalidate(t.getId()));
+        }
+    }
+
+    /**
+     * @return the current metrics of the cache.
+     */
+    public CacheMetrics getMetrics() {
+        long hits = this.hits.sum();
+        long misses = this.misses.sum();
+        return CacheMetrics.builder()
+                .hits(hits)
+                .misses(misses)
+                .hitRate(hits + misses == 0 ? 0 : hits / (double) (hits + misses))
+                .evictions(this.byId.stats().evictionCount())
+                .size(this.byId.estimatedSize())
+                .build();
+    }
+
+    /**
+     * Put the T (full, not projected) into the cache by id and by the lookup of all the unique attributes (i.e.
+     * getAny(rut, email), by the value of each one) without a query by T: to preload the cache from pages. A T
+     * written while its page was read may stay cached stale until the TTL.
+     *
+     * @param ts to cache.
+     */
+    public void preload(@NonNull Collection<T> ts) {
+        long version = this.invalidations.get();
+        String attributes = String.join(",", this.uniqueAttributes);
+        for (T t : ts) {
+            if (t.isProjected()) {
+                throw new IllegalArgumentException("Can't cache a projected entity: " + t);
+            }
+            List<String> keys = new ArrayList<>(this.uniqueAttributes.size());
+            for (String attribute : this.uniqueAttributes) {
+                Object value = valueOf(t, attribute);
+                if (value != null) {
+                    keys.add(attributes + '\u0000' + value);
+                }
+            }
+            this.fill(t, keys, version);
+        }
+    }
+
+    /**
+     * Cache a T read from the delegate, unless some T was invalidated since the read started (it could be the
+     * previous version of a T written in between).
+     *
+     * @param t       read.
+     * @param keys    the attribute + value used to read it (empty if read by id).
+     * @param version the number of invalidations before the read.
+     */
+    private void fill(T t, List<String> keys, long version) {
+        Integer id = t.getId();
+        if (!keys.isEmpty()) {
+            this.keysById.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).addAll(keys);
+        }
+        this.byId.put(id, t);
+        for (String key : keys) {
+            this.byAttribute.put(key, id);
+        }
+
+        // Raced with a write -> drop it (the write invalidated before this check or will invalidate after the put)
+        if (this.invalidations.get() != version) {
+            this.byId.invalidate(id);
+            this.dropKeys(id);
+        }
+    }
+
+    /**
+     * @param t         to read.
+     * @param attribute the name of the field.
+     * @return the value of the field.
+     */
+    @SneakyThrows(IllegalAccessException.class)
+    private static Object valueOf(Object t, String attribute) {
+        for (Class<?> c = t.getClass(); c != null; c = c.getSuperclass()) {
+            try {
+                Field field = c.getDeclaredField(attribute);
+                field.setAccessible(true);
+                return field.get(t);
+            } catch (NoSuchFieldException ex) {
+                // Try the superclass
+            }
+        }
+        throw new IllegalArgumentException("Unknown attribute " + attribute + " of " + t.getClass().getSimpleName());
+    }
+
+    /**
+     * Drop the T (by id and by attributes).
+     *
+     * @param id to drop.
+     */
+    private void invalidate(Integer id) {
+        if (id == null) {
+            return;
+        }
+        this.invalidations.incrementAndGet();
+        this.byId.invalidate(id);
+        this.dropKeys(id);
+    }
+
+    /**
+     * Drop the attribute + value keys of a T.
+     *
+     * @param id of the T.
+     */
+    private void dropKeys(Integer id) {
+        Set<String> keys = this.keysById.remove(id);
+        if (keys != null) {
+            this.byAttribute.invalidateAll(keys);
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet.orm;
+
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+
+/**
+ * The ConnectionSource factory.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class ConnectionSources {
+
+    /**
+     * Nope.
+     */
+    private ConnectionSources() {
+        // Nothing here
+    }
+
+    /**
+     * Build the ConnectionSource: a pool of connections or a single shared connection.
+     *
+     * @param config to use.
+     * @return the ConnectionSource.
+     */
+    @SneakyThrows(SQLException.class)
+    public static ConnectionSource create(@NonNull DatabaseConfig config) {
+        if (config.isPooled()) {
+            return PooledConnectionSource.create(config);
+        }
+        log.debug("Building the single Connection using: {}", config.getUrl());
+        return new JdbcConnectionSource(config.getUrl());
+    }
+
+}
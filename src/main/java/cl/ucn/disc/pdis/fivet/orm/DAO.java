@@ -25,6 +25,7 @@ package cl.ucn.disc.pdis.fivet.orm;
 
 import cl.ucn.disc.pdis.fivet.model.BaseEntity;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,11 +54,77 @@ public interface DAO<T extends BaseEntity> {
      */
     Optional<T> get(String attribute, Object value);
 
+    /**
+     * Get optional T where any of the attributes is equal to the value (in one query).
+     *
+     * @param attributes to filter.
+     * @param value      of the attributes.
+     * @return the optional T
+     */
+    Optional<T> getAny(List<String> attributes, Object value);
+
+    /**
+     * Get optional T where any of the attributes is equal to the value, loading only some columns.
+     *
+     * @param attributes to filter.
+     * @param value      of the attributes.
+     * @param projection the columns to load.
+     * @return the optional T (read-only if projected).
+     */
+    Optional<T> getAny(List<String> attributes, Object value, Projection projection);
+
     /**
      * Get all the T.
      */
     List<T> getAll();
 
+    /**
+     * Get a page of T (keyset pagination): the T with id greater than afterId, ordered by id.
+     *
+     * @param afterId the last id of the previous page (null for the first page).
+     * @param size    of the page.
+     * @return the page (empty if there are no more T).
+     */
+    List<T> getPage(Integer afterId, long size);
+
+    /**
+     * Get a page of T (keyset pagination), loading only some columns.
+     *
+     * @param afterId    the last id of the previous page (null for the first page).
+     * @param size       of the page.
+     * @param projection the columns to load.
+     * @return the page (read-only T if projected).
+     */
+    List<T> getPage(Integer afterId, long size, Projection projection);
+
+    /**
+     * Get the T where the attribute is equal to any of the values (IN query, chunked).
+     *
+     * @param attribute to filter.
+     * @param values    of the attribute.
+     * @return the T found (each one once).
+     */
+    List<T> getIn(String attribute, Collection<?> values);
+
+    /**
+     * Get the T where any of the attributes is equal to any of the values (IN query, chunked).
+     *
+     * @param attributes to filter.
+     * @param values     of the attributes.
+     * @return the T found (each one once).
+     */
+    List<T> getAnyIn(List<String> attributes, Collection<?> values);
+
+    /**
+     * Get the T where any of the attributes is equal to any of the values, loading only some columns.
+     *
+     * @param attributes to filter.
+     * @param values     of the attributes.
+     * @param projection the columns to load.
+     * @return the T found (read-only if projected).
+     */
+    List<T> getAnyIn(List<String> attributes, Collection<?> values, Projection projection);
+
     /**
      * Save T into the  T.
      *
@@ -65,6 +132,13 @@ public interface DAO<T extends BaseEntity> {
      */
     void save(T t);
 
+    /**
+     * Save all the T in one transaction (all or nothing).
+     *
+     * @param ts to save.
+     */
+    void saveAll(Collection<T> ts);
+
     /**
      * Delete a T.
      *
@@ -85,4 +159,11 @@ public interface DAO<T extends BaseEntity> {
      * @param t to update.
      */
     void update(T t);
+
+    /**
+     * Update all the T in one transaction (all or nothing).
+     *
+     * @param ts to update.
+     */
+    void updateAll(Collection<T> ts);
 }
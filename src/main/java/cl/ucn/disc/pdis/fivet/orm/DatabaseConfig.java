@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet.orm;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * The Database configuration.
+ * <p>
+ * When using a pool with an in-memory H2 database remember to add {@code ;DB_CLOSE_DELAY=-1} to the url, otherwise
+ * the database is destroyed when the pool closes its last connection.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Builder
+@Getter
+@ToString
+public final class DatabaseConfig {
+
+    /**
+     * The url of the database.
+     */
+    @NonNull
+    private final String url;
+
+    /**
+     * Use a pool of connections (true) or a single shared connection (false).
+     */
+    @Builder.Default
+    private final boolean pooled = false;
+
+    /**
+     * The minimum number of idle connections in the pool.
+     */
+    @Builder.Default
+    private final int minIdle = 1;
+
+    /**
+     * The maximum number of connections in the pool.
+     */
+    @Builder.Default
+    private final int maxSize = 10;
+
+    /**
+     * The time (ms) before an idle connection (over minIdle) gets evicted.
+     */
+    @Builder.Default
+    private final long idleTimeoutMillis = 600_000;
+
+    /**
+     * The max time (ms) to wait for a connection from the pool.
+     */
+    @Builder.Default
+    private final long connectionTimeoutMillis = 30_000;
+
+    /**
+     * The query to validate a connection (null to use the JDBC4 Connection.isValid()).
+     */
+    private final String validationQuery;
+
+    /**
+     * The number of prepared statements cached by connection in the driver (0 to disable; MySQL and Postgres).
+     */
+    @Builder.Default
+    private final int statementCacheSize = 256;
+
+    /**
+     * The number of threads running the async queries (usually the size of the pool, only one if not pooled).
+     */
+    @Builder.Default
+    private final int executorThreads = 10;
+
+    /**
+     * The max number of async queries waiting for a thread.
+     */
+    @Builder.Default
+    private final int executorQueueCapacity = 1000;
+
+    /**
+     * Drop the tables at startup (all the data is lost!) before applying the migrations.
+     */
+    @Builder.Default
+    private final boolean reset = false;
+
+    /**
+     * The storage of the ZonedDateTime fields.
+     */
+    @Builder.Default
+    private final TimestampFormat timestampFormat = TimestampFormat.STRING;
+
+    /**
+     * Build a single connection configuration.
+     *
+     * @param url to use.
+     * @return the DatabaseConfig.
+     */
+    public static DatabaseConfig of(@NonNull String url) {
+        return DatabaseConfig.builder().url(url).build();
+    }
+
+    /**
+     * Build the configuration from the System properties (-Dfivet.db.*).
+     *
+     * @param defaultUrl to use if fivet.db.url is not present.
+     * @return the DatabaseConfig.
+     */
+    public static DatabaseConfig fromSystemProperties(@NonNull String defaultUrl) {
+        return DatabaseConfig.builder()
+                .url(System.getProperty("fivet.db.url", defaultUrl))
+                .pooled(Boolean.getBoolean("fivet.db.pool"))
+                .minIdle(Integer.getInteger("fivet.db.pool.minIdle", 1))
+                .maxSize(Integer.getInteger("fivet.db.pool.maxSize", 10))
+                .idleTimeoutMillis(Long.getLong("fivet.db.pool.idleTimeout", 600_000L))
+                .connectionTimeoutMillis(Long.getLong("fivet.db.pool.connectionTimeout", 30_000L))
+                .validationQuery(System.getProperty("fivet.db.pool.validationQuery"))
+                .statementCacheSize(Integer.getInteger("fivet.db.pool.statementCacheSize", 256))
+                .executorThreads(Integer.getInteger("fivet.db.executor.threads", 10))
+                .executorQueueCapacity(Integer.getInteger("fivet.db.executor.queueCapacity", 1000))
+                .reset(Boolean.getBoolean("fivet.db.reset"))
+                .timestampFormat(TimestampFormat.valueOf(System.getProperty("fivet.db.timestampFormat", "STRING")))
+                .build();
+    }
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.orm;
+
+import cl.ucn.disc.pdis.fivet.model.BaseEntity;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The AsyncDAO running a (blocking) DAO in a bounded executor.
+ *
+ * @param <T>
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class ExecutorAsyncDAO<T extends BaseEntity> implements AsyncDAO<T> {
+
+    /**
+     * The DAO.
+     */
+    private final DAO<T> dao;
+
+    /**
+     * The database executor.
+     */
+    private final Executor executor;
+
+    /**
+     * The Constructor.
+     *
+     * @param dao      to use.
+     * @param executor to run the queries.
+     */
+    public ExecutorAsyncDAO(@NonNull DAO<T> dao, @NonNull Executor executor) {
+        this.dao = dao;
+        this.executor = executor;
+    }
+
+    /**
+     * Build the database executor: fixed threads (fivet-db-N) and a bounded queue. Without a pool there is only one
+     * connection, so only one thread (the others would just wait for it).
+     *
+     * @param config to use.
+     * @return the ThreadPoolExecutor.
+     */
+    public static ThreadPoolExecutor newExecutor(@NonNull DatabaseConfig config) {
+        int threads = config.isPooled() ? config.getExecutorThreads() : 1;
+        if (threads != config.getExecutorThreads()) {
+            log.warn("Not pooled: using 1 database thread instead of {}", config.getExecutorThreads());
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "fivet-db-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getExecutorQueueCapacity()),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * @param id to retrieve.
+     * @return the future optional T
+     */
+    @Override
+    public CompletableFuture<Optional<T>> get(@NonNull Integer id) {
+        return this.submit(() -> this.dao.get(id));
+    }
+
+    /**
+     * @param attribute to filter.
+     * @param value     of attribute.
+     * @return the future optional T
+     */
+    @Override
+    public CompletableFuture<Optional<T>> get(@NonNull String attribute, Object value) {
+        return this.submit(() -> this.dao.get(attribute, value));
+    }
+
+    /**
+     * @param attributes to filter.
+     * @param value      of the attributes.
+     * @return the future optional T
+     */
+    @Override
+    public CompletableFuture<Optional<T>> getAny(@NonNull List<String> attributes, Object value) {
+        return this.submit(() -> this.dao.getAny(attributes, value));
+    }
+
+    /**
+     * @param attributes to filter.
+     * @param value      of the attributes.
+     * @param projection the columns to load.
+     * @return the future optional T (read-only if projected).
+     */
+    @Override
+    public CompletableFuture<Optional<T>> getAny(@NonNull List<String> attributes, Object value,
+                                                 @NonNull Projection projection) {
+        return this.submit(() -> this.dao.getAny(attributes, value, projection));
+    }
+
+    /**
+     * @param afterId the last id of the previous page (null for the first page).
+     * @param size    of the page.
+     * @return the future page.
+     */
+    @Override
+    public CompletableFuture<List<T>> getPage(Integer afterId, long size) {
+        return this.submit(() -> this.dao.getPage(afterId, size));
+    }
+
+    /**
+     * @param t to save.
+     * @return the future completion.
+     */
+    @Override
+    public CompletableFuture<Void> save(@NonNull T t) {
+        return this.submit(() -> {
+            this.dao.save(t);
+            return null;
+        });
+    }
+
+    /**
+     * @param t to update.
+     * @return the future completion.
+     */
+    @Override
+    public CompletableFuture<Void> update(@NonNull T t) {
+        return this.submit(() -> {
+            this.dao.update(t);
+            return null;
+        });
+    }
+
+    /**
+     * @param id of the T to delete.
+     * @return the future completion.
+     */
+    @Override
+    public CompletableFuture<Void> delete(@NonNull Integer id) {
+        return this.submit(() -> {
+            this.dao.delete(id);
+            return null;
+        });
+    }
+
+    /**
+     * Run the query in the executor, translating the SQLException (sneaky thrown by the DAO).
+     *
+     * @param query to run.
+     * @param <R>   type of the result.
+     * @return the future result.
+     */
+    private <R> CompletableFuture<R> submit(Supplier<R> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return query.get();
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                // The SQLException
+                throw new DataAccessException(ex.getMessage(), ex);
+            }
+        }, this.executor);
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.orm;
+
+import com.j256.ormlite.support.ConnectionSource;
+import lombok.NonNull;
+
+import java.sql.SQLException;
+
+/**
+ * One versioned step of the schema (i.e. a new table, an index, a change of column, a backfill).
+ * <p>
+ * The versions are applied in order and only once: never change a migration already released, add a new one.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+public interface Migration {
+
+    /**
+     * @return the version (unique, greater than zero).
+     */
+    int getVersion();
+
+    /**
+     * @return the description.
+     */
+    String getDescription();
+
+    /**
+     * Apply the step.
+     *
+     * @param connectionSource to use.
+     * @throws SQLException in case of error.
+     */
+    void apply(ConnectionSource connectionSource) throws SQLException;
+
+    /**
+     * Build a Migration.
+     *
+     * @param version     of the step.
+     * @param description of the step.
+     * @param step        to apply.
+     * @return the Migration.
+     */
+    static Migration of(int version, @NonNull String description, @NonNull Step step) {
+        if (version <= 0) {
+            throw new IllegalArgumentException("The version must be greater than zero: " + version);
+        }
+        return new Migration() {
+
+            @Override
+            public int getVersion() {
+                return version;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+
+            @Override
+            public void apply(ConnectionSource connectionSource) throws SQLException {
+                step.apply(connectionSource);
+            }
+
+            @Override
+            public String toString() {
+                return "Migration(" + version + ": " + description + ")";
+            }
+        };
+    }
+
+    /**
+     * The body of a Migration.
+     */
+    @FunctionalInterface
+    interface Step {
+
+        /**
+         * @param connectionSource to use.
+         * @throws SQLException in case of error.
+         */
+        void apply(ConnectionSource connectionSource) throws SQLException;
+
+    }
+
+}
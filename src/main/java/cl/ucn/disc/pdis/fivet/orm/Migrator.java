@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.orm;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.misc.TransactionManager;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.table.TableUtils;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Apply the pending {@link Migration}s and record each one in the schema_version table.
+ * <p>
+ * When the schema is current the startup costs one query (SELECT MAX(version)), whatever the length of the history.
+ * Each step runs in its own transaction with its record (MySQL commits the DDL anyway). Start one instance first
+ * when deploying a new version: two instances applying the same step at once collide on the version (the primary
+ * key) and the loser fails.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class Migrator {
+
+    /**
+     * The connection.
+     */
+    private final ConnectionSource connectionSource;
+
+    /**
+     * The migrations (ordered by version).
+     */
+    private final List<Migration> migrations;
+
+    /**
+     * The Dao of the applied versions.
+     */
+    private final Dao<SchemaVersion, Integer> versionDao;
+
+    /**
+     * The Constructor.
+     *
+     * @param connectionSource to use.
+     * @param migrations       to apply (unique versions, any order).
+     */
+    @SneakyThrows(SQLException.class)
+    public Migrator(@NonNull ConnectionSource connectionSource, @NonNull List<Migration> migrations) {
+        List<Migration> ordered = new ArrayList<>(migrations);
+        ordered.sort(Comparator.comparingInt(Migration::getVersion));
+        for (int i = 1; i < ordered.size(); i++) {
+            if (ordered.get(i).getVersion() == ordered.get(i - 1).getVersion()) {
+                throw new IllegalArgumentException("Duplicated version: " + ordered.get(i));
+            }
+        }
+        this.connectionSource = connectionSource;
+        this.migrations = List.copyOf(ordered);
+        this.versionDao = DaoManager.createDao(connectionSource, SchemaVersion.class);
+    }
+
+    /**
+     * @return the version of the last migration (0 if none).
+     */
+    public int getLatestVersion() {
+        return this.migrations.isEmpty() ? 0 : this.migrations.get(this.migrations.size() - 1).getVersion();
+    }
+
+    /**
+     * @return the version of the database (0 if new).
+     */
+    @SneakyThrows(SQLException.class)
+    public int getCurrentVersion() {
+        TableUtils.createTableIfNotExists(this.connectionSource, SchemaVersion.class);
+        // MAX over the primary key: one index lookup
+        return (int) this.versionDao.queryRawValue("SELECT MAX(" + this.escape(SchemaVersion.VERSION) + ") FROM "
+                + this.escape(SchemaVersion.TABLE));
+    }
+
+    /**
+     * Apply the pending migrations (in order).
+     *
+     * @return the number of migrations applied.
+     */
+    @SneakyThrows(SQLException.class)
+    public int migrate() {
+        long start = System.nanoTime();
+        int current = this.getCurrentVersion();
+        int latest = this.getLatestVersion();
+
+        // Current -> get out of here!
+        if (current >= latest) {
+            if (current > latest) {
+                log.warn("The schema (version {}) is newer than this code (version {})", current, latest);
+            }
+            log.debug("Schema at version {}, checked in {}ms", current, (System.nanoTime() - start) / 1_000_000);
+            return 0;
+        }
+
+        int applied = 0;
+        for (Migration migration : this.migrations) {
+            if (migration.getVersion() <= current) {
+                continue;
+            }
+            log.info("Applying {} ..", migration);
+            long stepStart = System.currentTimeMillis();
+            TransactionManager.callInTransaction(this.connectionSource, () -> {
+                migration.apply(this.connectionSource);
+                this.versionDao.create(new SchemaVersion(migration.getVersion(), migration.getDescription(),
+                        System.currentTimeMillis(), System.currentTimeMillis() - stepStart));
+                return null;
+            });
+            applied++;
+        }
+        log.info("Schema migrated from version {} to {} ({} steps) in {}ms", current, latest, applied,
+                (System.nanoTime() - start) / 1_000_000);
+        return applied;
+    }
+
+    /**
+     * Drop the history and the settings (i.e. to start from scratch after dropping the tables).
+     */
+    @SneakyThrows(SQLException.class)
+    public void dropHistory() {
+        TableUtils.dropTable(this.connectionSource, SchemaVersion.class, true);
+        TableUtils.dropTable(this.connectionSource, SchemaSetting.class, true);
+    }
+
+    /**
+     * @param name to escape.
+     * @return the escaped name.
+     */
+    private String escape(String name) {
+        StringBuilder sb = new StringBuilder();
+        this.connectionSource.getDatabaseType().appendEscapedEntityName(sb, name);
+        return sb.toString();
+    }
+
+}
@@ -23,9 +23,16 @@
 
 package cl.ucn.disc.pdis.fivet.orm;
 
+import cl.ucn.disc.pdis.fivet.metrics.Metrics;
+import cl.ucn.disc.pdis.fivet.metrics.Timer;
 import cl.ucn.disc.pdis.fivet.model.BaseEntity;
 import com.j256.ormlite.dao.Dao;
 import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.misc.TransactionManager;
+import com.j256.ormlite.stmt.PreparedQuery;
+import com.j256.ormlite.stmt.QueryBuilder;
+import com.j256.ormlite.stmt.SelectArg;
+import com.j256.ormlite.stmt.Where;
 import com.j256.ormlite.support.ConnectionSource;
 import lombok.NonNull;
 import lombok.SneakyThrows;
@@ -33,8 +40,17 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.sql.SQLException;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * The ORMLite DAO implementation.
@@ -45,11 +61,52 @@ import java.util.Optional;
 @Slf4j
 public final class ORMLiteDAO<T extends BaseEntity> implements DAO<T> {
 
+    /**
+     * The column of the date of deletion.
+     */
+    static final String DELETED_AT = "deletedAt";
+
+    /**
+     * The column of the id.
+     */
+    static final String ID = "id";
+
+    /**
+     * The attributes of get by id.
+     */
+    private static final List<String> ID_ATTRIBUTES = List.of(ID);
+
     /**
      * The connection to ORMLite DAO.
      */
     private final Dao<T, Integer> theDao;
 
+    /**
+     * The pools of prepared queries, by projection and attributes (a PreparedQuery can't be shared between threads).
+     */
+    private final ConcurrentMap<Projection, ConcurrentMap<List<String>, Queue<PreparedQuery<T>>>> preparedQueries =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The max number of parameters by query (depends on the database).
+     */
+    private final int maxParameters;
+
+    /**
+     * The time of get by id.
+     */
+    private final Timer getTimer;
+
+    /**
+     * The time of get by attributes.
+     */
+    private final Timer getAnyTimer;
+
+    /**
+     * The time of get a page.
+     */
+    private final Timer getPageTimer;
+
     /**
      * The Contructor.
      *
@@ -59,6 +116,12 @@ public final class ORMLiteDAO<T extends BaseEntity> implements DAO<T> {
     @SneakyThrows(SQLException.class)
     public ORMLiteDAO(@NonNull ConnectionSource connectionSource, @NonNull Class<T> clazz) {
         this.theDao = DaoManager.createDao(connectionSource, clazz);
+        this.maxParameters = Schema.maxParameters(connectionSource);
+
+        String prefix = "dao." + clazz.getSimpleName();
+        this.getTimer = Metrics.timer(prefix + ".get");
+        this.getAnyTimer = Metrics.timer(prefix + ".getAny");
+        this.getPageTimer = Metrics.timer(prefix + ".getPage");
     }
 
     /**
@@ -69,16 +132,17 @@ public final class ORMLiteDAO<T extends BaseEntity> implements DAO<T> {
     @SneakyThrows(SQLException.class)
     @Override
     public Optional<T> get(@NonNull Integer id) {
-        // Exec the query
-        T t = this.theDao.queryForId(id);
+        long start = System.nanoTime();
 
-        // If null or deleted -> return empty
-        if (t == null || t.getDeletedAt() != null) {
-            return Optional.empty();
+        // WHERE id = ? AND deletedAt IS NULL
+        PreparedQuery<T> query = this.borrow(ID_ATTRIBUTES, Projection.ALL);
+        try {
+            query.setArgumentHolderValue(0, id);
+            return Optional.ofNullable(this.theDao.queryForFirst(query));
+        } finally {
+            this.release(ID_ATTRIBUTES, Projection.ALL, query);
+            this.getTimer.recordSince(start);
         }
-
-        // Return the value
-        return Optional.of(t);
     }
 
     /**
@@ -88,26 +152,251 @@ public final class ORMLiteDAO<T extends BaseEntity> implements DAO<T> {
      * @param value     of attribute.
      * @return the optional T.
      */
-    @SneakyThrows
     @Override
-    public Optional<T> get(String attribute, Object value) {
-        // Retrieve from database
-        List<T> filtered = this.removeDeleted(this.theDao.queryForEq(attribute, value));
+    public Optional<T> get(@NonNull String attribute, Object value) {
+        return this.getAny(List.of(attribute), value);
+    }
+
+    /**
+     * Get optional T where any of the attributes is equal to the value (in one query).
+     *
+     * @param attributes to filter.
+     * @param value      of the attributes.
+     * @return the optional T.
+     */
+    @Override
+    public Optional<T> getAny(@NonNull List<String> attributes, Object value) {
+        return this.getAny(attributes, value, Projection.ALL);
+    }
+
+    /**
+     * Get optional T where any of the attributes is equal to the value, loading only some columns.
+     *
+     * @param attributes to filter.
+     * @param value      of the attributes.
+     * @param projection the columns to load.
+     * @return the optional T (read-only if projected).
+     */
+    @SneakyThrows(SQLException.class)
+    @Override
+    public Optional<T> getAny(@NonNull List<String> attributes, Object value, @NonNull Projection projection) {
+        long start = System.nanoTime();
+
+        // SELECT columns WHERE (a1 = ? OR a2 = ? ..) AND deletedAt IS NULL
+        PreparedQuery<T> query = this.borrow(attributes, projection);
+        List<T> filtered;
+        try {
+            for (int i = 0; i < attributes.size(); i++) {
+                query.setArgumentHolderValue(i, value);
+            }
+            filtered = mark(this.theDao.query(query), projection);
+        } finally {
+            this.release(attributes, projection, query);
+            this.getAnyTimer.recordSince(start);
+        }
 
         // Show a warning
         if (filtered.size() > 1) {
-            log.warn("Founded more than one value in {} for {}", value, attribute);
+            log.warn("Founded more than one value in {} for {}", value, attributes);
         }
         return filtered.isEmpty() ? Optional.empty() : Optional.of(filtered.get(0));
     }
 
+    /**
+     * Take a prepared query (WHERE (a1 = ? OR a2 = ? ..) AND deletedAt IS NULL) from the pool, or prepare a new one.
+     *
+     * @param attributes of the query.
+     * @param projection of the query.
+     * @return the PreparedQuery (only for the caller until released).
+     */
+    private PreparedQuery<T> borrow(List<String> attributes, Projection projection) throws SQLException {
+        PreparedQuery<T> query = this.pool(attributes, projection).poll();
+        if (query != null) {
+            return query;
+        }
+
+        QueryBuilder<T, Integer> qb = this.select(projection);
+        Where<T, Integer> where = qb.where();
+        for (String attribute : attributes) {
+            where.eq(attribute, new SelectArg());
+        }
+        where.or(attributes.size()).and().isNull(DELETED_AT);
+        return qb.prepare();
+    }
+
+    /**
+     * Return a prepared query to the pool.
+     *
+     * @param attributes of the query.
+     * @param projection of the query.
+     * @param query      to return.
+     */
+    private void release(List<String> attributes, Projection projection, PreparedQuery<T> query) {
+        this.pool(attributes, projection).offer(query);
+    }
+
+    /**
+     * @param attributes of the query.
+     * @param projection of the query.
+     * @return the pool of prepared queries (created if needed).
+     */
+    private Queue<PreparedQuery<T>> pool(List<String> attributes, Projection projection) {
+        ConcurrentMap<List<String>, Queue<PreparedQuery<T>>> byAttributes = this.preparedQueries.get(projection);
+        if (byAttributes == null) {
+            byAttributes = this.preparedQueries.computeIfAbsent(projection, key -> new ConcurrentHashMap<>());
+        }
+        Queue<PreparedQuery<T>> pool = byAttributes.get(attributes);
+        if (pool == null) {
+            pool = byAttributes.computeIfAbsent(List.copyOf(attributes), key -> new ConcurrentLinkedQueue<>());
+        }
+        return pool;
+    }
+
+    /**
+     * @param projection the columns to load.
+     * @return the QueryBuilder selecting the columns.
+     */
+    private QueryBuilder<T, Integer> select(Projection projection) {
+        QueryBuilder<T, Integer> qb = this.theDao.queryBuilder();
+        if (!projection.isAll()) {
+            qb.selectColumns(projection.getColumns());
+        }
+        return qb;
+    }
+
+    /**
+     * Mark the T loaded with some columns as projected (read-only).
+     *
+     * @param ts         loaded.
+     * @param projection used.
+     * @return the ts.
+     */
+    private static <T extends BaseEntity> List<T> mark(List<T> ts, Projection projection) {
+        if (!projection.isAll()) {
+            ts.forEach(t -> t.setProjected(true));
+        }
+        return ts;
+    }
+
+    /**
+     * Check that a T can be written (not projected).
+     *
+     * @param t to write.
+     */
+    private static void checkWritable(BaseEntity t) {
+        if (t.isProjected()) {
+            throw new IllegalArgumentException("Can't write an entity loaded with some columns (projected)");
+        }
+    }
+
     /**
      * Get all the T.
      */
     @SneakyThrows(SQLException.class)
     @Override
     public List<T> getAll() {
-        return this.removeDeleted(this.theDao.queryForAll());
+        // WHERE deletedAt IS NULL
+        QueryBuilder<T, Integer> qb = this.theDao.queryBuilder();
+        qb.where().isNull(DELETED_AT);
+        return this.theDao.query(qb.prepare());
+    }
+
+    /**
+     * Get a page of T (keyset pagination): the T with id greater than afterId, ordered by id.
+     *
+     * @param afterId the last id of the previous page (null for the first page).
+     * @param size    of the page.
+     * @return the page (empty if there are no more T).
+     */
+    @Override
+    public List<T> getPage(Integer afterId, long size) {
+        return this.getPage(afterId, size, Projection.ALL);
+    }
+
+    /**
+     * Get a page of T (keyset pagination), loading only some columns.
+     *
+     * @param afterId    the last id of the previous page (null for the first page).
+     * @param size       of the page.
+     * @param projection the columns to load.
+     * @return the page (read-only T if projected).
+     */
+    @SneakyThrows(SQLException.class)
+    @Override
+    public List<T> getPage(Integer afterId, long size, @NonNull Projection projection) {
+        // SELECT columns WHERE deletedAt IS NULL AND id > ? ORDER BY id LIMIT ?
+        QueryBuilder<T, Integer> qb = this.select(projection);
+        Where<T, Integer> where = qb.where().isNull(DELETED_AT);
+        if (afterId != null) {
+            where.and().gt(ID, afterId);
+        }
+        qb.orderBy(ID, true).limit(size);
+
+        long start = System.nanoTime();
+        try {
+            return mark(this.theDao.query(qb.prepare()), projection);
+        } finally {
+            this.getPageTimer.recordSince(start);
+        }
+    }
+
+    /**
+     * Get the T where the attribute is equal to any of the values (IN query, chunked).
+     *
+     * @param attribute to filter.
+     * @param values    of the attribute.
+     * @return the T found (each one once).
+     */
+    @Override
+    public List<T> getIn(@NonNull String attribute, @NonNull Collection<?> values) {
+        return this.getAnyIn(List.of(attribute), values);
+    }
+
+    /**
+     * Get the T where any of the attributes is equal to any of the values (IN query, chunked to keep the number of
+     * parameters under the limit of the database).
+     *
+     * @param attributes to filter.
+     * @param values     of the attributes.
+     * @return the T found (each one once, ordered by id).
+     */
+    @Override
+    public List<T> getAnyIn(@NonNull List<String> attributes, @NonNull Collection<?> values) {
+        return this.getAnyIn(attributes, values, Projection.ALL);
+    }
+
+    /**
+     * Get the T where any of the attributes is equal to any of the values, loading only some columns.
+     *
+     * @param attributes to filter.
+     * @param values     of the attributes.
+     * @param projection the columns to load.
+     * @return the T found (read-only if projected).
+     */
+    @SneakyThrows(SQLException.class)
+    @Override
+    public List<T> getAnyIn(@NonNull List<String> attributes, @NonNull Collection<?> values,
+                            @NonNull Projection projection) {
+        List<?> distinct = values.stream().filter(Objects::nonNull).distinct().toList();
+        int chunkSize = Math.max(1, this.maxParameters / attributes.size());
+
+        Map<Integer, T> found = new TreeMap<>();
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            List<?> chunk = distinct.subList(from, Math.min(from + chunkSize, distinct.size()));
+
+            // WHERE (a1 IN (?, ..) OR a2 IN (?, ..)) AND deletedAt IS NULL
+            QueryBuilder<T, Integer> qb = this.select(projection);
+            Where<T, Integer> where = qb.where();
+            for (String attribute : attributes) {
+                where.in(attribute, chunk.stream().map(SelectArg::new).toList());
+            }
+            where.or(attributes.size()).and().isNull(DELETED_AT);
+
+            for (T t : mark(this.theDao.query(qb.prepare()), projection)) {
+                found.putIfAbsent(t.getId(), t);
+            }
+        }
+        return new ArrayList<>(found.values());
     }
 
     /**
@@ -118,12 +407,29 @@ public final class ORMLiteDAO<T extends BaseEntity> implements DAO<T> {
     @SneakyThrows(SQLException.class)
     @Override
     public void save(T t) {
+        checkWritable(t);
         int created = this.theDao.create(t);
         if (created != 1) {
             throw new SQLException("Rows created != 1 !!");
         }
     }
 
+    /**
+     * Save all the T in one transaction (all or nothing).
+     *
+     * @param ts to save.
+     */
+    @SneakyThrows(SQLException.class)
+    @Override
+    public void saveAll(@NonNull Collection<T> ts) {
+        TransactionManager.callInTransaction(this.theDao.getConnectionSource(), () -> {
+            for (T t : ts) {
+                this.save(t);
+            }
+            return null;
+        });
+    }
+
     /**
      * Delete a T.
      *
@@ -161,20 +467,24 @@ public final class ORMLiteDAO<T extends BaseEntity> implements DAO<T> {
     @SneakyThrows(SQLException.class)
     @Override
     public void update(T t) {
+        checkWritable(t);
         this.theDao.update(t);
     }
 
     /**
-     * Remove the deleted T
+     * Update all the T in one transaction (all or nothing).
      *
-     * @param theList to filter.
-     * @return the List filtered.
+     * @param ts to update.
      */
-    private List<T> removeDeleted(List<T> theList) {
-        // Remove the deleteds
-        return theList.stream()
-                .filter(t -> t.getDeletedAt() == null)
-                .toList();
+    @SneakyThrows(SQLException.class)
+    @Override
+    public void updateAll(@NonNull Collection<T> ts) {
+        TransactionManager.callInTransaction(this.theDao.getConnectionSource(), () -> {
+            for (T t : ts) {
+                this.update(t);
+            }
+            return null;
+        });
     }
 
 }
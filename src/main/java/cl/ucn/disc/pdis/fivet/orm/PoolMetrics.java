@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet.orm;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A snapshot of the metrics of the pool of connections.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Builder
+@Getter
+@ToString
+public final class PoolMetrics {
+
+    /**
+     * The number of connections in use.
+     */
+    private final int active;
+
+    /**
+     * The number of idle connections.
+     */
+    private final int idle;
+
+    /**
+     * The total number of connections.
+     */
+    private final int total;
+
+    /**
+     * The number of threads waiting for a connection.
+     */
+    private final int awaiting;
+
+    /**
+     * The number of connections acquired from the pool.
+     */
+    private final long acquired;
+
+    /**
+     * The number of timeouts waiting for a connection.
+     */
+    private final long timeouts;
+
+    /**
+     * The average time (ms) waiting for a connection.
+     */
+    private final double averageWaitMillis;
+
+    /**
+     * The max time (ms) waiting for a connection.
+     */
+    private final double maxWaitMillis;
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet.orm;
+
+import com.j256.ormlite.jdbc.DataSourceConnectionSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The ConnectionSource backed by a pool of JDBC connections (HikariCP).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class PooledConnectionSource extends DataSourceConnectionSource {
+
+    /**
+     * The pool.
+     */
+    private final HikariDataSource dataSource;
+
+    /**
+     * The wait time tracker.
+     */
+    private final WaitTracker waitTracker;
+
+    /**
+     * The Constructor.
+     *
+     * @param dataSource  to use.
+     * @param waitTracker to use.
+     * @param databaseUrl to use.
+     */
+    private PooledConnectionSource(HikariDataSource dataSource, WaitTracker waitTracker, String databaseUrl)
+            throws SQLException {
+        super(dataSource, databaseUrl);
+        this.dataSource = dataSource;
+        this.waitTracker = waitTracker;
+    }
+
+    /**
+     * Build the pool.
+     *
+     * @param config to use.
+     * @return the PooledConnectionSource.
+     */
+    public static PooledConnectionSource create(@NonNull DatabaseConfig config) throws SQLException {
+        WaitTracker waitTracker = new WaitTracker();
+
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setPoolName("fivet-pool");
+        hikariConfig.setJdbcUrl(config.getUrl());
+        hikariConfig.setMinimumIdle(config.getMinIdle());
+        hikariConfig.setMaximumPoolSize(config.getMaxSize());
+        hikariConfig.setIdleTimeout(config.getIdleTimeoutMillis());
+        hikariConfig.setConnectionTimeout(config.getConnectionTimeoutMillis());
+        if (config.getValidationQuery() != null) {
+            hikariConfig.setConnectionTestQuery(config.getValidationQuery());
+        }
+        hikariConfig.setMetricsTrackerFactory(waitTracker);
+        configureStatementCache(hikariConfig, config);
+
+        log.debug("Building the pool of connections: {}", config);
+        return new PooledConnectionSource(new HikariDataSource(hikariConfig), waitTracker, config.getUrl());
+    }
+
+    /**
+     * Enable the cache of prepared statements of the driver (the same SQL reuses the server side statement).
+     *
+     * @param hikariConfig to configure.
+     * @param config       to use.
+     */
+    private static void configureStatementCache(HikariConfig hikariConfig, DatabaseConfig config) {
+        int size = config.getStatementCacheSize();
+        if (size <= 0) {
+            return;
+        }
+        String url = config.getUrl();
+        if (url.startsWith("jdbc:mysql:") || url.startsWith("jdbc:mariadb:")) {
+            hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
+            hikariConfig.addDataSourceProperty("useServerPrepStmts", "true");
+            hikariConfig.addDataSourceProperty("prepStmtCacheSize", String.valueOf(size));
+            hikariConfig.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        } else if (url.startsWith("jdbc:postgresql:")) {
+            hikariConfig.addDataSourceProperty("prepareThreshold", "1");
+            hikariConfig.addDataSourceProperty("preparedStatementCacheQueries", String.valueOf(size));
+        }
+        // H2 and SQLite: the parsed statements are cached by the engine (H2 QUERY_CACHE_SIZE)
+    }
+
+    /**
+     * @return the current metrics of the pool.
+     */
+    public PoolMetrics getMetrics() {
+        HikariPoolMXBean pool = this.dataSource.getHikariPoolMXBean();
+        long acquired = this.waitTracker.acquired.sum();
+        return PoolMetrics.builder()
+                .active(pool.getActiveConnections())
+                .idle(pool.getIdleConnections())
+                .total(pool.getTotalConnections())
+                .awaiting(pool.getThreadsAwaitingConnection())
+                .acquired(acquired)
+                .timeouts(this.waitTracker.timeouts.sum())
+                .averageWaitMillis(acquired == 0 ? 0 : toMillis(this.waitTracker.waitNanos.sum()) / acquired)
+                .maxWaitMillis(toMillis(this.waitTracker.maxWaitNanos.get()))
+                .build();
+    }
+
+    /**
+     * Close the ConnectionSource and the pool.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } catch (Exception ex) {
+            log.warn("Error closing the ConnectionSource", ex);
+        } finally {
+            this.dataSource.close();
+        }
+    }
+
+    /**
+     * @param nanos to convert.
+     * @return the nanos as millis.
+     */
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Tracks the time waiting for a connection.
+     */
+    private static final class WaitTracker implements MetricsTrackerFactory, IMetricsTracker {
+
+        /**
+         * Number of connections acquired.
+         */
+        private final LongAdder acquired = new LongAdder();
+
+        /**
+         * Total time waiting.
+         */
+        private final LongAdder waitNanos = new LongAdder();
+
+        /**
+         * Max time waiting.
+         */
+        private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+
+        /**
+         * Number of timeouts.
+         */
+        private final LongAdder timeouts = new LongAdder();
+
+        @Override
+        public IMetricsTracker create(String poolName, PoolStats poolStats) {
+            return this;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            this.acquired.increment();
+            this.waitNanos.add(elapsedAcquiredNanos);
+            this.maxWaitNanos.accumulate(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            this.timeouts.increment();
+        }
+    }
+
+}
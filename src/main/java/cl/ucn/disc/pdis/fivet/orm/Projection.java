@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.orm;
+
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The columns to load in a read (the id is always loaded). The entities loaded with some columns are read-only.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@EqualsAndHashCode
+@ToString
+public final class Projection {
+
+    /**
+     * All the columns.
+     */
+    public static final Projection ALL = new Projection(Collections.emptyList());
+
+    /**
+     * The columns (empty = all).
+     */
+    private final List<String> columns;
+
+    /**
+     * The private constructor.
+     *
+     * @param columns to load.
+     */
+    private Projection(List<String> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Build a projection.
+     *
+     * @param columns to load (besides the id).
+     * @return the Projection.
+     */
+    public static Projection of(@NonNull String... columns) {
+        List<String> list = new ArrayList<>(List.of(ORMLiteDAO.ID));
+        for (String column : columns) {
+            if (!list.contains(column)) {
+                list.add(column);
+            }
+        }
+        return new Projection(List.copyOf(list));
+    }
+
+    /**
+     * @return true if all the columns are loaded.
+     */
+    public boolean isAll() {
+        return this.columns.isEmpty();
+    }
+
+    /**
+     * @return the columns to load (empty = all).
+     */
+    public List<String> getColumns() {
+        return this.columns;
+    }
+
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet.orm;
+
+import cl.ucn.disc.pdis.fivet.model.BaseEntity;
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.db.DatabaseType;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.table.TableUtils;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * The Schema of the BaseEntity tables.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class Schema {
+
+    /**
+     * Nope.
+     */
+    private Schema() {
+        // Nothing here
+    }
+
+    /**
+     * Create the table of T plus the index of the live (not deleted) rows.
+     *
+     * @param connectionSource to use.
+     * @param clazz            to create.
+     * @param <T>              type of the entity.
+     */
+    @SneakyThrows(SQLException.class)
+    public static <T extends BaseEntity> void createTable(@NonNull ConnectionSource connectionSource,
+                                                          @NonNull Class<T> clazz) {
+        TableUtils.createTable(connectionSource, clazz);
+        createLiveIndex(connectionSource, clazz);
+    }
+
+    /**
+     * Create the table of T (without the index of the live rows), unless the table already exists.
+     *
+     * @param connectionSource to use.
+     * @param clazz            to create.
+     * @param <T>              type of the entity.
+     * @return true if created.
+     */
+    @SneakyThrows(SQLException.class)
+    public static <T extends BaseEntity> boolean createTableIfNotExists(@NonNull ConnectionSource connectionSource,
+                                                                        @NonNull Class<T> clazz) {
+        if (DaoManager.createDao(connectionSource, clazz).isTableExists()) {
+            log.debug("The table of {} already exists", clazz.getSimpleName());
+            return false;
+        }
+        TableUtils.createTable(connectionSource, clazz);
+        return true;
+    }
+
+    /**
+     * Drop the table of T (and the indexes).
+     *
+     * @param connectionSource to use.
+     * @param clazz            to drop.
+     * @param <T>              type of the entity.
+     */
+    @SneakyThrows(SQLException.class)
+    public static <T extends BaseEntity> void dropTable(@NonNull ConnectionSource connectionSource,
+                                                        @NonNull Class<T> clazz) {
+        TableUtils.dropTable(connectionSource, clazz, true);
+    }
+
+    /**
+     * Create the index used by the deletedAt IS NULL predicate: a partial index over the live ids where the dialect
+     * allows it (Postgres, SQLite), a (deletedAt, id) index otherwise. Does nothing if the index already exists.
+     *
+     * @param connectionSource to use.
+     * @param clazz            to index.
+     * @param <T>              type of the entity.
+     */
+    @SneakyThrows(SQLException.class)
+    public static <T extends BaseEntity> void createLiveIndex(@NonNull ConnectionSource connectionSource,
+                                                              @NonNull Class<T> clazz) {
+        Dao<T, Integer> dao = DaoManager.createDao(connectionSource, clazz);
+        DatabaseType databaseType = connectionSource.getDatabaseType();
+        String databaseName = databaseType.getDatabaseName();
+        String tableName = dao.getTableName();
+
+        StringBuilder sql = new StringBuilder("CREATE INDEX ");
+        if (!isMysql(databaseName)) {
+            sql.append("IF NOT EXISTS ");
+        }
+        if (supportsPartialIndex(databaseName)) {
+            databaseType.appendEscapedEntityName(sql, tableName + "_live_idx");
+            sql.append(" ON ");
+            databaseType.appendEscapedEntityName(sql, tableName);
+            sql.append(" (");
+            databaseType.appendEscapedEntityName(sql, ORMLiteDAO.ID);
+            sql.append(") WHERE ");
+            databaseType.appendEscapedEntityName(sql, ORMLiteDAO.DELETED_AT);
+            sql.append(" IS NULL");
+        } else {
+            databaseType.appendEscapedEntityName(sql, tableName + "_deletedAt_idx");
+            sql.append(" ON ");
+            databaseType.appendEscapedEntityName(sql, tableName);
+            sql.append(" (");
+            databaseType.appendEscapedEntityName(sql, ORMLiteDAO.DELETED_AT);
+            sql.append(", ");
+            databaseType.appendEscapedEntityName(sql, ORMLiteDAO.ID);
+            sql.append(")");
+        }
+
+        log.debug("Creating the index: {}", sql);
+        try {
+            dao.executeRawNoArgs(sql.toString());
+        } catch (SQLException ex) {
+            // MySQL: no IF NOT EXISTS -> tolerate the duplicate
+            if (isMysql(databaseName) && isDuplicateKeyName(ex)) {
+                log.debug("The index of the live rows of {} already exists", clazz.getSimpleName());
+                return;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Drop the index of the live rows (i.e. to alter the deletedAt column).
+     *
+     * @param connectionSource to use.
+     * @param clazz            to drop the index.
+     * @param <T>              type of the entity.
+     */
+    @SneakyThrows(SQLException.class)
+    public static <T extends BaseEntity> void dropLiveIndex(@NonNull ConnectionSource connectionSource,
+                                                            @NonNull Class<T> clazz) {
+        Dao<T, Integer> dao = DaoManager.createDao(connectionSource, clazz);
+        DatabaseType databaseType = connectionSource.getDatabaseType();
+        String databaseName = databaseType.getDatabaseName();
+        String tableName = dao.getTableName();
+        String indexName = supportsPartialIndex(databaseName) ? tableName + "_live_idx" : tableName + "_deletedAt_idx";
+
+        StringBuilder sql = new StringBuilder("DROP INDEX ");
+        if (isMysql(databaseName)) {
+            databaseType.appendEscapedEntityName(sql, indexName);
+            sql.append(" ON ");
+            databaseType.appendEscapedEntityName(sql, tableName);
+        } else {
+            sql.append("IF EXISTS ");
+            databaseType.appendEscapedEntityName(sql, indexName);
+        }
+
+        log.debug("Dropping the index: {}", sql);
+        dao.executeRawNoArgs(sql.toString());
+    }
+
+    /**
+     * @param connectionSource to use.
+     * @param name             of the setting.
+     * @return the value of the setting of the schema (empty if not set).
+     */
+    @SneakyThrows(SQLException.class)
+    public static Optional<String> getSetting(@NonNull ConnectionSource connectionSource, @NonNull String name) {
+        TableUtils.createTableIfNotExists(connectionSource, SchemaSetting.class);
+        Dao<SchemaSetting, String> dao = DaoManager.createDao(connectionSource, SchemaSetting.class);
+        return Optional.ofNullable(dao.queryForId(name)).map(SchemaSetting::getValue);
+    }
+
+    /**
+     * Set (insert or replace) a setting of the schema.
+     *
+     * @param connectionSource to use.
+     * @param name             of the setting.
+     * @param value            of the setting.
+     */
+    @SneakyThrows(SQLException.class)
+    public static void putSetting(@NonNull ConnectionSource connectionSource, @NonNull String name,
+                                  @NonNull String value) {
+        TableUtils.createTableIfNotExists(connectionSource, SchemaSetting.class);
+        Dao<SchemaSetting, String> dao = DaoManager.createDao(connectionSource, SchemaSetting.class);
+        dao.createOrUpdate(new SchemaSetting(name, value));
+    }
+
+    /**
+     * @param connectionSource to check.
+     * @return the max number of parameters of a query.
+     */
+    static int maxParameters(ConnectionSource connectionSource) {
+        // SQL Server allows 2100, the others much more
+        if (!"SQLite".equalsIgnoreCase(connectionSource.getDatabaseType().getDatabaseName())) {
+            return 2000;
+        }
+
+        // SQLite: 999 before 3.32, 32766 after
+        try {
+            String[] version = DaoManager.createDao(connectionSource, SchemaVersion.class)
+                    .queryRaw("SELECT sqlite_version()").getFirstResult()[0].split("\\.");
+            int major = Integer.parseInt(version[0]);
+            int minor = Integer.parseInt(version[1]);
+            return major > 3 || major == 3 && minor >= 32 ? 32766 : 999;
+        } catch (SQLException | RuntimeException ex) {
+            log.warn("Can't read the version of SQLite, using 999 parameters: {}", ex.getMessage());
+            return 999;
+        }
+    }
+
+    /**
+     * @param databaseName to check.
+     * @return true if the database supports CREATE INDEX .. WHERE.
+     */
+    private static boolean supportsPartialIndex(String databaseName) {
+        return "Postgres".equalsIgnoreCase(databaseName) || "SQLite".equalsIgnoreCase(databaseName);
+    }
+
+    /**
+     * @param ex to check.
+     * @return true if the exception (or any cause) is the MySQL duplicate key name error (1061).
+     */
+    private static boolean isDuplicateKeyName(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getErrorCode() == 1061) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param databaseName to check.
+     * @return true if the database is MySQL (no CREATE INDEX IF NOT EXISTS).
+     */
+    private static boolean isMysql(String databaseName) {
+        return "MySQL".equalsIgnoreCase(databaseName) || "MariaDB".equalsIgnoreCase(databaseName);
+    }
+
+}
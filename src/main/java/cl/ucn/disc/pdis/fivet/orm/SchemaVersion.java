@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.orm;
+
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.table.DatabaseTable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * One applied {@link Migration} (a row of the schema_version table).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@ToString
+@DatabaseTable(tableName = SchemaVersion.TABLE)
+public final class SchemaVersion {
+
+    /**
+     * The name of the table.
+     */
+    public static final String TABLE = "schema_version";
+
+    /**
+     * The name of the version column.
+     */
+    public static final String VERSION = "version";
+
+    /**
+     * The version.
+     */
+    @DatabaseField(id = true, columnName = VERSION)
+    private int version;
+
+    /**
+     * The description.
+     */
+    @DatabaseField(canBeNull = false)
+    private String description;
+
+    /**
+     * When it was applied (epoch millis).
+     */
+    @DatabaseField(canBeNull = false)
+    private long appliedAt;
+
+    /**
+     * The time it took (ms).
+     */
+    @DatabaseField(canBeNull = false)
+    private long durationMillis;
+
+}
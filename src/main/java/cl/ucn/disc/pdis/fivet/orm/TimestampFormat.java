@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet.orm;
+
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.field.DataPersister;
+import com.j256.ormlite.field.DataPersisterManager;
+
+/**
+ * The storage of the ZonedDateTime fields.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+public enum TimestampFormat {
+
+    /**
+     * ISO_ZONED_DATE_TIME in a VARCHAR (keeps the region of the zone).
+     */
+    STRING(ZonedDateTimeType.INSTANCE),
+
+    /**
+     * Epoch micros + offset in a BIGINT (compact, sortable, no parsing).
+     */
+    EPOCH(ZonedDateTimeEpochType.INSTANCE);
+
+    /**
+     * The name of the setting of the schema with the stored format.
+     */
+    public static final String SETTING = "timestampFormat";
+
+    /**
+     * The persister.
+     */
+    private final DataPersister dataPersister;
+
+    /**
+     * The Constructor.
+     *
+     * @param dataPersister to use.
+     */
+    TimestampFormat(DataPersister dataPersister) {
+        this.dataPersister = dataPersister;
+    }
+
+    /**
+     * Register the persister of ZonedDateTime (replacing the previous one).
+     * <p>
+     * The registry of ORMLite is global: all the DAOs built after this call use this format.
+     */
+    public void register() {
+        DataPersisterManager.clear();
+        DataPersisterManager.registerDataPersisters(this.dataPersister);
+        // The cached DAOs keep the old persister
+        DaoManager.clearCache();
+    }
+
+}
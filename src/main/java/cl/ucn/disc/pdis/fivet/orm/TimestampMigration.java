@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet.orm;
+
+import cl.ucn.disc.pdis.fivet.model.BaseEntity;
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.dao.GenericRawResults;
+import com.j256.ormlite.db.DatabaseType;
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.misc.TransactionManager;
+import com.j256.ormlite.support.ConnectionSource;
+import lombok.Cleanup;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Field;
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * The migration of the ZonedDateTime columns from {@link TimestampFormat#STRING} to {@link TimestampFormat#EPOCH}.
+ * <p>
+ * Each column is converted in one transaction: the values are parsed once into a temporary table (id, epoch), a new
+ * BIGINT column (NOT NULL if the field can't be null) is filled from it with one UPDATE, then the old column is
+ * dropped and the new one renamed. The columns already in epoch are skipped. Only raw SQL is used, so the registered
+ * {@link TimestampFormat} doesn't matter.
+ * <p>
+ * The format in use is stored as a setting of the schema: {@link #apply} converts a STRING schema when EPOCH is
+ * configured (one-way) and fails when the configured format can't read the stored one.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TimestampMigration {
+
+    /**
+     * The rows by INSERT into the temporary table.
+     */
+    private static final int CHUNK_SIZE = 500;
+
+    /**
+     * Nope.
+     */
+    private TimestampMigration() {
+        // Nothing here
+    }
+
+    /**
+     * Check the stored format of the timestamps against the configured one (at startup, after the migrations).
+     * <p>
+     * Without a stored setting (a table created before the setting existed) the format is detected from the data.
+     * STRING -> EPOCH is converted with {@link #toEpoch}; EPOCH -> STRING is not supported.
+     *
+     * @param connectionSource to use.
+     * @param clazz            of the table.
+     * @param configured       the format to use.
+     * @param columns          of the timestamps (i.e. createdAt, deletedAt; the first one is used to detect).
+     * @param <T>              type of the entity.
+     * @throws IllegalStateException if the stored format can't be converted to the configured one.
+     */
+    @SneakyThrows(SQLException.class)
+    public static <T extends BaseEntity> void apply(@NonNull ConnectionSource connectionSource,
+                                                    @NonNull Class<T> clazz,
+                                                    @NonNull TimestampFormat configured,
+                                                    @NonNull String... columns) {
+        Dao<T, Integer> dao = DaoManager.createDao(connectionSource, clazz);
+        DatabaseType databaseType = connectionSource.getDatabaseType();
+
+        TimestampFormat stored = Schema.getSetting(connectionSource, TimestampFormat.SETTING)
+                .map(TimestampFormat::valueOf)
+                .orElse(isEpoch(databaseType, dao, columns[0]) ? TimestampFormat.EPOCH : TimestampFormat.STRING);
+        log.debug("The timestamps of {} are stored as {}, configured as {}", dao.getTableName(), stored, configured);
+
+        if (stored == TimestampFormat.STRING && configured == TimestampFormat.EPOCH) {
+            toEpoch(connectionSource, clazz, columns);
+        } else if (stored != configured) {
+            throw new IllegalStateException("The timestamps of " + dao.getTableName() + " are stored as " + stored
+                    + " but configured as " + configured + " (the conversion is only STRING -> EPOCH)");
+        }
+        Schema.putSetting(connectionSource, TimestampFormat.SETTING, configured.name());
+    }
+
+    /**
+     * Migrate the columns of the table of T to epoch.
+     *
+     * @param connectionSource to use.
+     * @param clazz            of the table.
+     * @param columns          to migrate (i.e. createdAt, deletedAt).
+     * @param <T>              type of the entity.
+     */
+    @SneakyThrows(SQLException.class)
+    public static <T extends BaseEntity> void toEpoch(@NonNull ConnectionSource connectionSource,
+                                                      @NonNull Class<T> clazz,
+                                                      @NonNull String... columns) {
+        Dao<T, Integer> dao = DaoManager.createDao(connectionSource, clazz);
+        DatabaseType databaseType = connectionSource.getDatabaseType();
+
+        List<String> pending = new ArrayList<>();
+        for (String column : columns) {
+            if (isEpoch(databaseType, dao, column)) {
+                log.debug("The column {}.{} is already in epoch", dao.getTableName(), column);
+            } else {
+                pending.add(column);
+            }
+        }
+
+        // Nothing to do -> get out of here!
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // The index over deletedAt blocks the drop of the column
+        Schema.dropLiveIndex(connectionSource, clazz);
+
+        for (String column : pending) {
+            log.debug("Migrating {}.{} to epoch ..", dao.getTableName(), column);
+            boolean nullable = isNullable(clazz, column);
+            TransactionManager.callInTransaction(connectionSource, () -> {
+                migrateColumn(databaseType, dao, column, nullable);
+                return null;
+            });
+        }
+
+        Schema.createLiveIndex(connectionSource, clazz);
+    }
+
+    /**
+     * Migrate one column.
+     *
+     * @param databaseType to use.
+     * @param dao          of the table.
+     * @param column       to migrate.
+     * @param nullable     false to keep the column NOT NULL.
+     */
+    private static void migrateColumn(DatabaseType databaseType, Dao<?, Integer> dao, String column, boolean nullable)
+            throws Exception {
+        String table = escape(databaseType, dao.getTableName());
+        String id = escape(databaseType, ORMLiteDAO.ID);
+        String oldColumn = escape(databaseType, column);
+        String newColumn = escape(databaseType, column + "_epoch");
+        String values = escape(databaseType, dao.getTableName() + "_" + column + "_epoch");
+        String packed = escape(databaseType, "packed");
+
+        // The parsed values: id -> epoch
+        dao.executeRawNoArgs("CREATE TABLE " + values + " (" + id + " INTEGER PRIMARY KEY, " + packed
+                + " BIGINT NOT NULL)");
+        DateTimeFormatter dtf = DateTimeFormatter.ISO_ZONED_DATE_TIME;
+        int count = 0;
+        @Cleanup
+        GenericRawResults<String[]> rows = dao.queryRaw("SELECT " + id + ", " + oldColumn + " FROM " + table
+                + " WHERE " + oldColumn + " IS NOT NULL");
+        StringJoiner insert = null;
+        for (String[] row : rows) {
+            if (insert == null) {
+                insert = new StringJoiner(", ", "INSERT INTO " + values + " (" + id + ", " + packed + ") VALUES ", "");
+            }
+            // Numbers only: safe to inline
+            insert.add("(" + Integer.parseInt(row[0]) + ", "
+                    + ZonedDateTimeEpochType.pack(ZonedDateTime.parse(row[1], dtf)) + ")");
+            if (++count % CHUNK_SIZE == 0) {
+                dao.executeRawNoArgs(insert.toString());
+                insert = null;
+            }
+        }
+        if (insert != null) {
+            dao.executeRawNoArgs(insert.toString());
+        }
+
+        // The new column (the old NOT NULL column has a value in every row: the default is replaced by the UPDATE)
+        dao.executeRawNoArgs("ALTER TABLE " + table + " ADD COLUMN " + newColumn + " BIGINT"
+                + (nullable ? "" : " DEFAULT 0 NOT NULL"));
+
+        // Copy the values (one UPDATE)
+        dao.executeRawNoArgs("UPDATE " + table + " SET " + newColumn + " = (SELECT " + packed + " FROM " + values
+                + " WHERE " + values + "." + id + " = " + table + "." + id + ") WHERE " + oldColumn + " IS NOT NULL");
+        dao.executeRawNoArgs("DROP TABLE " + values);
+        log.debug("Migrated {} values of {}", count, column);
+
+        // Replace the old column
+        dao.executeRawNoArgs("ALTER TABLE " + table + " DROP COLUMN " + oldColumn);
+        if ("H2".equalsIgnoreCase(databaseType.getDatabaseName())) {
+            dao.executeRawNoArgs("ALTER TABLE " + table + " ALTER COLUMN " + newColumn + " RENAME TO " + oldColumn);
+        } else {
+            dao.executeRawNoArgs("ALTER TABLE " + table + " RENAME COLUMN " + newColumn + " TO " + oldColumn);
+        }
+
+        // SQLite can't drop the default (harmless: the column is always written)
+        if (!nullable && !"SQLite".equalsIgnoreCase(databaseType.getDatabaseName())) {
+            dao.executeRawNoArgs("ALTER TABLE " + table + " ALTER COLUMN " + oldColumn + " DROP DEFAULT");
+        }
+    }
+
+    /**
+     * @param databaseType to use.
+     * @param dao          of the table.
+     * @param column       to check.
+     * @return true if the column already stores epochs (an empty table is migrated anyway: nothing to copy).
+     */
+    private static boolean isEpoch(DatabaseType databaseType, Dao<?, Integer> dao, String column)
+            throws SQLException {
+        String escaped = escape(databaseType, column);
+        String[] row = dao.queryRaw("SELECT " + escaped + " FROM " + escape(databaseType, dao.getTableName())
+                + " WHERE " + escaped + " IS NOT NULL").getFirstResult();
+        if (row == null) {
+            return false;
+        }
+        try {
+            Long.parseLong(row[0]);
+            return true;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * @param clazz  of the entity.
+     * @param column to check (the name of the field).
+     * @return true if the field can be null.
+     */
+    private static boolean isNullable(Class<?> clazz, String column) {
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                DatabaseField databaseField = field.getAnnotation(DatabaseField.class);
+                if (databaseField != null && column.equals(field.getName())) {
+                    return databaseField.canBeNull();
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param databaseType to use.
+     * @param name         to escape.
+     * @return the escaped name.
+     */
+    private static String escape(DatabaseType databaseType, String name) {
+        StringBuilder sb = new StringBuilder();
+        databaseType.appendEscapedEntityName(sb, name);
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet.orm;
+
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.field.SqlType;
+import com.j256.ormlite.field.types.BaseDataType;
+import com.j256.ormlite.support.DatabaseResults;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * The ZonedDateTime to Database BIGINT converter.
+ * <p>
+ * The value is the epoch in microseconds shifted 8 bits to the left plus the offset in quarters of hour (-18:00 ..
+ * +18:00) in the lower bits, so the order of the column is the order of the instants and the database can sort and
+ * compare natively. The region of the zone (i.e. America/Santiago) is not stored, only the offset. Offsets that are
+ * not a multiple of 15 minutes are stored as UTC. The supported range is the years 1399 .. 2540.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+public final class ZonedDateTimeEpochType extends BaseDataType {
+
+    /**
+     * Singleton!
+     */
+    public static final ZonedDateTimeEpochType INSTANCE = new ZonedDateTimeEpochType();
+
+    /**
+     * The bits used by the offset.
+     */
+    private static final int OFFSET_BITS = 8;
+
+    /**
+     * The mask of the offset.
+     */
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+    /**
+     * The step of the offset: 15 minutes.
+     */
+    private static final int OFFSET_STEP = 15 * 60;
+
+    /**
+     * The bias of the offset: -18:00 is 0.
+     */
+    private static final int OFFSET_BIAS = 72;
+
+    /**
+     * Microseconds per second.
+     */
+    private static final long MICROS = 1_000_000L;
+
+    /**
+     * The private constructor.
+     */
+    private ZonedDateTimeEpochType() {
+        super(SqlType.LONG, new Class<?>[]{ZonedDateTime.class});
+    }
+
+    /**
+     * Pack a ZonedDateTime into a long.
+     *
+     * @param zdt to pack.
+     * @return the epoch micros + offset.
+     */
+    public static long pack(ZonedDateTime zdt) {
+        Instant instant = zdt.toInstant();
+        long micros = Math.addExact(Math.multiplyExact(instant.getEpochSecond(), MICROS), instant.getNano() / 1_000);
+
+        int offset = zdt.getOffset().getTotalSeconds();
+        int code = offset % OFFSET_STEP == 0 ? offset / OFFSET_STEP + OFFSET_BIAS : OFFSET_BIAS;
+
+        return Math.multiplyExact(micros, 1L << OFFSET_BITS) | code;
+    }
+
+    /**
+     * Unpack a long into a ZonedDateTime.
+     *
+     * @param packed to unpack.
+     * @return the ZonedDateTime.
+     */
+    public static ZonedDateTime unpack(long packed) {
+        long micros = packed >> OFFSET_BITS;
+        int code = (int) (packed & OFFSET_MASK);
+
+        Instant instant = Instant.ofEpochSecond(Math.floorDiv(micros, MICROS), Math.floorMod(micros, MICROS) * 1_000);
+        return ZonedDateTime.ofInstant(instant, ZoneOffset.ofTotalSeconds((code - OFFSET_BIAS) * OFFSET_STEP));
+    }
+
+    /**
+     * Convert a default string object and return the appropriate argument to a SQL insert or update statement.
+     */
+    @Override
+    public Object parseDefaultString(FieldType fieldType, String defaultStr) {
+        return Long.parseLong(defaultStr);
+    }
+
+    /**
+     * The Java to SQL converter.
+     */
+    @Override
+    public Object javaToSqlArg(FieldType fieldType, Object javaObject) {
+        ZonedDateTime zdt = (ZonedDateTime) javaObject;
+        if (zdt == null) return null;
+        return pack(zdt);
+    }
+
+    /**
+     * Return the SQL argument object extracted from the results associated with column in position columnPos.
+     */
+    @Override
+    public Object resultToSqlArg(FieldType fieldType, DatabaseResults results, int columnPos) throws SQLException {
+        long value = results.getLong(columnPos);
+        return results.wasNull(columnPos) ? null : value;
+    }
+
+    /**
+     * The SQL to Java converter.
+     */
+    @Override
+    public Object sqlArgToJava(FieldType fieldType, Object sqlArg, int columnPos) {
+        if (sqlArg == null) return null;
+        return unpack((Long) sqlArg);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.ratelimit;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The configuration of the rate limits (token buckets by remote address and by login).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Builder
+@Getter
+@ToString
+public final class RateLimitConfig {
+
+    /**
+     * Use the limits?
+     */
+    @Builder.Default
+    private final boolean enabled = false;
+
+    /**
+     * The calls by second of a remote address (all the methods).
+     */
+    @Builder.Default
+    private final double peerRate = 100;
+
+    /**
+     * The burst of calls of a remote address.
+     */
+    @Builder.Default
+    private final int peerBurst = 200;
+
+    /**
+     * The authentications by second of a login.
+     */
+    @Builder.Default
+    private final double loginRate = 1;
+
+    /**
+     * The burst of authentications of a login.
+     */
+    @Builder.Default
+    private final int loginBurst = 5;
+
+    /**
+     * The max number of buckets (by kind) in memory.
+     */
+    @Builder.Default
+    private final long maxKeys = 100_000;
+
+    /**
+     * The time (seconds) before an idle bucket gets evicted.
+     */
+    @Builder.Default
+    private final long idleSeconds = 600;
+
+    /**
+     * Build the configuration from the System properties (-Dfivet.rateLimit.*).
+     *
+     * @return the RateLimitConfig.
+     */
+    public static RateLimitConfig fromSystemProperties() {
+        RateLimitConfig defaults = RateLimitConfig.builder().build();
+        return RateLimitConfig.builder()
+                .enabled(Boolean.getBoolean("fivet.rateLimit"))
+                .peerRate(Double.parseDouble(System.getProperty("fivet.rateLimit.peerRate",
+                        String.valueOf(defaults.peerRate))))
+                .peerBurst(Integer.getInteger("fivet.rateLimit.peerBurst", defaults.peerBurst))
+                .loginRate(Double.parseDouble(System.getProperty("fivet.rateLimit.loginRate",
+                        String.valueOf(defaults.loginRate))))
+                .loginBurst(Integer.getInteger("fivet.rateLimit.loginBurst", defaults.loginBurst))
+                .maxKeys(Long.getLong("fivet.rateLimit.maxKeys", defaults.maxKeys))
+                .idleSeconds(Long.getLong("fivet.rateLimit.idleSeconds", defaults.idleSeconds))
+                .build();
+    }
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.ratelimit;
+
+import cl.ucn.disc.pdis.fivet.grpc.Credencial;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.NonNull;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+/**
+ * The interceptor rejecting with RESOURCE_EXHAUSTED, before any database or hashing work, the calls over the limit of
+ * the remote address (all the methods) and the autenticar calls over the limit of the login.
+ * <p>
+ * The streams can't be rejected by message here without breaking their flow control: the RateLimiter is in the
+ * Context ({@link #LIMITER}) so autenticarStream answers the limited credentials itself.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+public final class RateLimitInterceptor implements ServerInterceptor {
+
+    /**
+     * The RateLimiter of the current call (null if not limited).
+     */
+    public static final Context.Key<RateLimiter> LIMITER = Context.key("fivet-rate-limiter");
+
+    /**
+     * The limiter.
+     */
+    private final RateLimiter limiter;
+
+    /**
+     * The Constructor.
+     *
+     * @param limiter to use.
+     */
+    public RateLimitInterceptor(@NonNull RateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    /**
+     * Intercept the call.
+     *
+     * @param call    to limit.
+     * @param headers of the call.
+     * @param next    handler.
+     * @return the listener.
+     */
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        // Over the limit of the remote address -> get out of here!
+        if (!this.limiter.tryAcquirePeer(peer(call))) {
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription("Too many calls"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+
+        Context context = Context.current().withValue(LIMITER, this.limiter);
+        ServerCall.Listener<ReqT> listener = Contexts.interceptCall(context, call, headers, next);
+        if (call.getMethodDescriptor().getType().clientSendsOneMessage()) {
+            return new LoginLimitedListener<>(listener, call, this.limiter);
+        }
+        return listener;
+    }
+
+    /**
+     * @param call to use.
+     * @return the remote address without the port (a client opens many connections).
+     */
+    private static String peer(ServerCall<?, ?> call) {
+        SocketAddress address = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+        if (address instanceof InetSocketAddress inet && inet.getAddress() != null) {
+            return inet.getAddress().getHostAddress();
+        }
+        return String.valueOf(address);
+    }
+
+    /**
+     * The listener closing the unary calls with a Credencial over the limit of the login.
+     */
+    private static final class LoginLimitedListener<ReqT, RespT>
+            extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+
+        /**
+         * The call.
+         */
+        private final ServerCall<ReqT, RespT> call;
+
+        /**
+         * The limiter.
+         */
+        private final RateLimiter limiter;
+
+        /**
+         * True if rejected (the rest of the call is dropped).
+         */
+        private boolean rejected;
+
+        /**
+         * The Constructor.
+         *
+         * @param delegate to forward.
+         * @param call     to close.
+         * @param limiter  to use.
+         */
+        private LoginLimitedListener(ServerCall.Listener<ReqT> delegate, ServerCall<ReqT, RespT> call,
+                                     RateLimiter limiter) {
+            super(delegate);
+            this.call = call;
+            this.limiter = limiter;
+        }
+
+        /**
+         * Check the login of the Credencial.
+         *
+         * @param message received.
+         */
+        @Override
+        public void onMessage(ReqT message) {
+            if (message instanceof Credencial credencial && !this.limiter.tryAcquireLogin(credencial.getLogin())) {
+                this.rejected = true;
+                this.call.close(Status.RESOURCE_EXHAUSTED.withDescription("Too many attempts for the login"),
+                        new Metadata());
+                return;
+            }
+            super.onMessage(message);
+        }
+
+        /**
+         * The client sent the message (dropped if rejected).
+         */
+        @Override
+        public void onHalfClose() {
+            if (!this.rejected) {
+                super.onHalfClose();
+            }
+        }
+
+        /**
+         * The call is ready (dropped if rejected).
+         */
+        @Override
+        public void onReady() {
+            if (!this.rejected) {
+                super.onReady();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.ratelimit;
+
+import cl.ucn.disc.pdis.fivet.metrics.Metrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The token buckets by remote address and by login.
+ * <p>
+ * The buckets live in two bounded Caffeine caches (striped, lock-free reads) that evict the idle keys; an evicted
+ * bucket comes back full. The rejected calls are counted in ratelimit.peer.rejected and ratelimit.login.rejected.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class RateLimiter {
+
+    /**
+     * The configuration.
+     */
+    @Getter
+    private final RateLimitConfig config;
+
+    /**
+     * The buckets by remote address.
+     */
+    private final Cache<String, TokenBucket> peers;
+
+    /**
+     * The buckets by login.
+     */
+    private final Cache<String, TokenBucket> logins;
+
+    /**
+     * Number of calls rejected by remote address.
+     */
+    private final LongAdder peerRejected = Metrics.counter("ratelimit.peer.rejected");
+
+    /**
+     * Number of authentications rejected by login.
+     */
+    private final LongAdder loginRejected = Metrics.counter("ratelimit.login.rejected");
+
+    /**
+     * The Constructor.
+     *
+     * @param config to use.
+     */
+    public RateLimiter(@NonNull RateLimitConfig config) {
+        log.debug("Building the RateLimiter: {}", config);
+        this.config = config;
+        this.peers = Caffeine.newBuilder()
+                .maximumSize(config.getMaxKeys())
+                .expireAfterAccess(Duration.ofSeconds(config.getIdleSeconds()))
+                .build();
+        this.logins = Caffeine.newBuilder()
+                .maximumSize(config.getMaxKeys())
+                .expireAfterAccess(Duration.ofSeconds(config.getIdleSeconds()))
+                .build();
+    }
+
+    /**
+     * @return the number of remote addresses with a bucket (approximate).
+     */
+    public long getPeerKeys() {
+        return this.peers.estimatedSize();
+    }
+
+    /**
+     * @return the number of logins with a bucket (approximate).
+     */
+    public long getLoginKeys() {
+        return this.logins.estimatedSize();
+    }
+
+    /**
+     * Take a token of a remote address.
+     *
+     * @param peer the remote address (without the port).
+     * @return true if allowed.
+     */
+    public boolean tryAcquirePeer(@NonNull String peer) {
+        long now = System.nanoTime();
+        TokenBucket bucket = this.peers.get(peer,
+                key -> new TokenBucket(this.config.getPeerRate(), this.config.getPeerBurst(), now));
+        if (bucket.tryAcquire(now)) {
+            return true;
+        }
+        this.peerRejected.increment();
+        return false;
+    }
+
+    /**
+     * Take a token of a login.
+     *
+     * @param login the rut or email (case insensitive).
+     * @return true if allowed.
+     */
+    public boolean tryAcquireLogin(@NonNull String login) {
+        long now = System.nanoTime();
+        TokenBucket bucket = this.logins.get(login.toLowerCase(Locale.ROOT),
+                key -> new TokenBucket(this.config.getLoginRate(), this.config.getLoginBurst(), now));
+        if (bucket.tryAcquire(now)) {
+            return true;
+        }
+        this.loginRejected.increment();
+        return false;
+    }
+
+}
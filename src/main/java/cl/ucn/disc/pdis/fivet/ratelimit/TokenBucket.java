@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket, kept as its theoretical arrival time (GCRA): one AtomicLong and one CAS by call.
+ * <p>
+ * Each call moves the arrival time one interval (1 / rate) forward; the call is allowed while the arrival time is
+ * at most burst intervals ahead of now (the bucket still has a token).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+final class TokenBucket {
+
+    /**
+     * The nanos between two tokens.
+     */
+    private final long interval;
+
+    /**
+     * How far (nanos) the arrival time can run ahead of now.
+     */
+    private final long tolerance;
+
+    /**
+     * The theoretical arrival time (nanos).
+     */
+    private final AtomicLong arrival;
+
+    /**
+     * The Constructor.
+     *
+     * @param rate  tokens by second.
+     * @param burst max tokens.
+     * @param now   the current time (nanos).
+     */
+    TokenBucket(double rate, int burst, long now) {
+        if (rate <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("The rate and burst must be greater than zero");
+        }
+        this.interval = Math.max(1, (long) (1_000_000_000L / rate));
+        this.tolerance = this.interval * burst;
+        this.arrival = new AtomicLong(now);
+    }
+
+    /**
+     * Take a token.
+     *
+     * @param now the current time (nanos).
+     * @return true if there was a token.
+     */
+    boolean tryAcquire(long now) {
+        while (true) {
+            long current = this.arrival.get();
+            long next = Math.max(current - now, 0) + now + this.interval;
+            // Empty -> rejected (nothing written)
+            if (next - now > this.tolerance) {
+                return false;
+            }
+            if (this.arrival.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.services;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Find the Argon2 cost that takes (close to) the target time to verify a password in the current machine.
+ * <p>
+ * The memory is doubled (up to the max memory) and then the iterations are increased, keeping the last configuration
+ * below the target.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class Argon2Calibrator {
+
+    /**
+     * The password to hash.
+     */
+    private static final String PASSWORD = "calibration-password";
+
+    /**
+     * The number of measures of each configuration (the median is used).
+     */
+    private static final int SAMPLES = 5;
+
+    /**
+     * The max number of iterations.
+     */
+    private static final int MAX_ITERATIONS = 16;
+
+    /**
+     * The private constructor.
+     */
+    private Argon2Calibrator() {
+        // Nothing here
+    }
+
+    /**
+     * Calibrate the memory and iterations.
+     *
+     * @param base the configuration to start from (the minimum cost).
+     * @return the configuration calibrated.
+     */
+    public static Argon2Config calibrate(@NonNull Argon2Config base) {
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(base.getTargetMillis());
+
+        // Warm up the JIT
+        measure(base);
+
+        Argon2Config best = base;
+        long bestNanos = measure(base);
+
+        // First: the memory
+        while (best.getMemory() * 2 <= base.getMaxMemory()) {
+            Argon2Config next = best.toBuilder().memory(best.getMemory() * 2).build();
+            long nanos = measure(next);
+            if (nanos > targetNanos) {
+                break;
+            }
+            best = next;
+            bestNanos = nanos;
+        }
+
+        // Then: the iterations
+        while (best.getMemory() * 2 > base.getMaxMemory() && best.getIterations() < MAX_ITERATIONS) {
+            Argon2Config next = best.toBuilder().iterations(best.getIterations() + 1).build();
+            long nanos = measure(next);
+            if (nanos > targetNanos) {
+                break;
+            }
+            best = next;
+            bestNanos = nanos;
+        }
+
+        log.info("Argon2 calibrated: memory={}KB, iterations={}, parallelism={} -> {}ms (target: {}ms)",
+                best.getMemory(), best.getIterations(), best.getParallelism(),
+                TimeUnit.NANOSECONDS.toMillis(bestNanos), base.getTargetMillis());
+        return best;
+    }
+
+    /**
+     * @param config to measure.
+     * @return the median time of one verification (nanos).
+     */
+    private static long measure(Argon2Config config) {
+        Argon2PasswordEncoder encoder = config.toEncoder();
+        String encoded = encoder.encode(PASSWORD);
+
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.matches(PASSWORD, encoded);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.services;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The configuration of the Argon2 password hashing (the cost of each hash).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Builder(toBuilder = true)
+@Getter
+@ToString
+public final class Argon2Config {
+
+    /**
+     * The parameters inside an encoded hash: $argon2id$v=19$m=4096,t=3,p=1$salt$hash
+     */
+    private static final Pattern PARAMETERS = Pattern.compile("^\\$argon2[di]{1,2}\\$v=\\d+\\$m=(\\d+),t=(\\d+),p=(\\d+)\\$");
+
+    /**
+     * The length of the salt (bytes).
+     */
+    @Builder.Default
+    private final int saltLength = 16;
+
+    /**
+     * The length of the hash (bytes).
+     */
+    @Builder.Default
+    private final int hashLength = 32;
+
+    /**
+     * The number of lanes.
+     */
+    @Builder.Default
+    private final int parallelism = 1;
+
+    /**
+     * The memory (KB).
+     */
+    @Builder.Default
+    private final int memory = 4096;
+
+    /**
+     * The number of iterations.
+     */
+    @Builder.Default
+    private final int iterations = 3;
+
+    /**
+     * True to calibrate the memory and iterations at startup.
+     */
+    @Builder.Default
+    private final boolean calibrate = false;
+
+    /**
+     * The target time of one verification when calibrating (ms).
+     */
+    @Builder.Default
+    private final long targetMillis = 250;
+
+    /**
+     * The max memory when calibrating (KB).
+     */
+    @Builder.Default
+    private final int maxMemory = 65536;
+
+    /**
+     * Build the configuration from the System properties (-Dfivet.argon2.*).
+     *
+     * @return the Argon2Config.
+     */
+    public static Argon2Config fromSystemProperties() {
+        Argon2Config defaults = Argon2Config.builder().build();
+        return Argon2Config.builder()
+                .parallelism(Integer.getInteger("fivet.argon2.parallelism", defaults.parallelism))
+                .memory(Integer.getInteger("fivet.argon2.memory", defaults.memory))
+                .iterations(Integer.getInteger("fivet.argon2.iterations", defaults.iterations))
+                .calibrate(Boolean.getBoolean("fivet.argon2.calibrate"))
+                .targetMillis(Long.getLong("fivet.argon2.targetMillis", defaults.targetMillis))
+                .maxMemory(Integer.getInteger("fivet.argon2.maxMemory", defaults.maxMemory))
+                .build();
+    }
+
+    /**
+     * @return the encoder with this configuration.
+     */
+    public Argon2PasswordEncoder toEncoder() {
+        return new Argon2PasswordEncoder(this.saltLength, this.hashLength, this.parallelism, this.memory,
+                this.iterations);
+    }
+
+    /**
+     * Check if an encoded hash was built with other memory, iterations or parallelism.
+     *
+     * @param encodedPassword to check.
+     * @return true if the password should be hashed again.
+     */
+    public boolean needsRehash(@NonNull String encodedPassword) {
+        Matcher matcher = PARAMETERS.matcher(encodedPassword);
+        if (!matcher.find()) {
+            // Not an argon2 hash (or unknown format)
+            return true;
+        }
+        return Integer.parseInt(matcher.group(1)) != this.memory
+                || Integer.parseInt(matcher.group(2)) != this.iterations
+                || Integer.parseInt(matcher.group(3)) != this.parallelism;
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet.services;
+
+import cl.ucn.disc.pdis.fivet.orm.CacheConfig;
+import cl.ucn.disc.pdis.fivet.orm.DatabaseConfig;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * The configuration of the Controller.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Builder
+@Getter
+@ToString
+public final class ControllerConfig {
+
+    /**
+     * The database.
+     */
+    @NonNull
+    private final DatabaseConfig database;
+
+    /**
+     * The cost of the password hashing.
+     */
+    @Builder.Default
+    private final Argon2Config argon2 = Argon2Config.builder().build();
+
+    /**
+     * The pool of password hashing.
+     */
+    @Builder.Default
+    private final HashingConfig hashing = HashingConfig.builder().build();
+
+    /**
+     * The cache of verified credentials.
+     */
+    @Builder.Default
+    private final CredentialCacheConfig credentialCache = CredentialCacheConfig.builder().build();
+
+    /**
+     * The cache of the Personas (by id, rut and email).
+     */
+    @Builder.Default
+    private final CacheConfig personaCache = CacheConfig.builder().build();
+
+    /**
+     * The Bloom filter of the logins.
+     */
+    @Builder.Default
+    private final LoginFilterConfig loginFilter = LoginFilterConfig.builder().build();
+
+    /**
+     * The warm-up.
+     */
+    @Builder.Default
+    private final WarmUpConfig warmUp = WarmUpConfig.builder().build();
+
+    /**
+     * Build a configuration with the defaults.
+     *
+     * @param databaseUrl to use.
+     * @return the ControllerConfig.
+     */
+    public static ControllerConfig of(@NonNull String databaseUrl) {
+        return ControllerConfig.builder().database(DatabaseConfig.of(databaseUrl)).build();
+    }
+
+    /**
+     * Build the configuration from the System properties (-Dfivet.*).
+     *
+     * @param defaultUrl to use if fivet.db.url is not present.
+     * @return the ControllerConfig.
+     */
+    public static ControllerConfig fromSystemProperties(@NonNull String defaultUrl) {
+        return ControllerConfig.builder()
+                .database(DatabaseConfig.fromSystemProperties(defaultUrl))
+                .argon2(Argon2Config.fromSystemProperties())
+                .hashing(HashingConfig.fromSystemProperties())
+                .credentialCache(CredentialCacheConfig.fromSystemProperties())
+                .personaCache(CacheConfig.fromSystemProperties("fivet.personaCache"))
+                .loginFilter(LoginFilterConfig.fromSystemProperties())
+                .warmUp(WarmUpConfig.fromSystemProperties())
+                .build();
+    }
+
+}
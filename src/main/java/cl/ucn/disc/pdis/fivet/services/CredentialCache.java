@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet.services;
+
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The cache of recent successful verifications, to skip the Argon2 work on repeated logins.
+ * <p>
+ * The key is the login plus a HMAC-SHA256 of the password (with a random key per process), the plaintext is never
+ * stored. A verification is only valid while the Persona keeps the same id and the same password hash.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class CredentialCache {
+
+    /**
+     * The MAC algorithm.
+     */
+    private static final String ALGORITHM = "HmacSHA256";
+
+    /**
+     * The configuration.
+     */
+    private final CredentialCacheConfig config;
+
+    /**
+     * The verifications.
+     */
+    private final Cache<String, Verification> cache;
+
+    /**
+     * The keys of the verifications by id of the Persona (to invalidate them by key).
+     */
+    private final ConcurrentMap<Integer, Set<String>> keysByPersona = new ConcurrentHashMap<>();
+
+    /**
+     * The key of the digest.
+     */
+    private final SecretKeySpec secretKey;
+
+    /**
+     * Number of hits.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Number of misses.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * The Constructor.
+     *
+     * @param config to use.
+     */
+    public CredentialCache(@NonNull CredentialCacheConfig config) {
+        log.debug("Building the CredentialCache: {}", config);
+        this.config = config;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(config.getTtlSeconds()))
+                .recordStats()
+                .evictionListener((String key, Verification verification, RemovalCause cause) ->
+                        this.dropKey(verification.idPersona, key))
+                .build();
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.secretKey = new SecretKeySpec(key, ALGORITHM);
+    }
+
+    /**
+     * Check if the login + password was verified before against the current password of the Persona.
+     *
+     * @param login    used.
+     * @param password used.
+     * @param persona  retrieved from the backend.
+     * @return true if the credentials are still valid.
+     */
+    public boolean isVerified(@NonNull String login, @NonNull String password, @NonNull Persona persona) {
+        if (!this.config.isEnabled()) {
+            return false;
+        }
+
+        Verification verification = this.cache.getIfPresent(this.key(login, password));
+        if (verification != null
+                && Objects.equals(verification.idPersona, persona.getId())
+                && Objects.equals(verification.passwordHash, persona.getPassword())) {
+            this.hits.increment();
+            return true;
+        }
+
+        this.misses.increment();
+        return false;
+    }
+
+    /**
+     * Remember a successful verification.
+     *
+     * @param login    used.
+     * @param password used.
+     * @param persona  verified.
+     */
+    public void put(@NonNull String login, @NonNull String password, @NonNull Persona persona) {
+        if (!this.config.isEnabled()) {
+            return;
+        }
+        String key = this.key(login, password);
+        this.keysByPersona.computeIfAbsent(persona.getId(), id -> ConcurrentHashMap.newKeySet()).add(key);
+        this.cache.put(key, new Verification(persona.getId(), persona.getPassword()));
+    }
+
+    /**
+     * Forget all the verifications of a Persona.
+     *
+     * @param idPersona to forget.
+     */
+    public void invalidate(@NonNull Integer idPersona) {
+        if (!this.config.isEnabled()) {
+            return;
+        }
+        Set<String> keys = this.keysByPersona.remove(idPersona);
+        if (keys != null) {
+            this.cache.invalidateAll(keys);
+        }
+    }
+
+    /**
+     * @return the current metrics of the cache.
+     */
+    public CredentialCacheMetrics getMetrics() {
+        long hits = this.hits.sum();
+        long misses = this.misses.sum();
+        return CredentialCacheMetrics.builder()
+                .hits(hits)
+                .misses(misses)
+                .hitRate(hits + misses == 0 ? 0 : hits / (double) (hits + misses))
+                .size(this.cache.estimatedSize())
+                .evictions(this.cache.stats().evictionCount())
+                .build();
+    }
+
+    /**
+     * Forget the key of an evicted (or expired) verification.
+     *
+     * @param idPersona of the verification.
+     * @param key       of the verification.
+     */
+    private void dropKey(Integer idPersona, String key) {
+        this.keysByPersona.computeIfPresent(idPersona, (id, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * Build the key: login + HMAC(password).
+     *
+     * @param login    to use.
+     * @param password to digest.
+     * @return the key.
+     */
+    @SneakyThrows(GeneralSecurityException.class)
+    private String key(String login, String password) {
+        Mac mac = Mac.getInstance(ALGORITHM);
+        mac.init(this.secretKey);
+        byte[] digest = mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        return login + '\u0000' + Base64.getEncoder().encodeToString(digest);
+    }
+
+    /**
+     * A successful verification.
+     */
+    private static final class Verification {
+
+        /**
+         * The id of the Persona.
+         */
+        private final Integer idPersona;
+
+        /**
+         * The hash of the password verified.
+         */
+        private final String passwordHash;
+
+        /**
+         * The Constructor.
+         *
+         * @param idPersona    verified.
+         * @param passwordHash verified.
+         */
+        private Verification(Integer idPersona, String passwordHash) {
+            this.idPersona = idPersona;
+            this.passwordHash = passwordHash;
+        }
+    }
+
+}
@@ -25,7 +25,12 @@ package cl.ucn.disc.pdis.fivet.services;
 
 import cl.ucn.disc.pdis.fivet.model.Persona;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * The Controller.
@@ -42,15 +47,43 @@ public interface FivetController {
      */
     Optional<Persona> retrieveByLogin(String login);
 
+    /**
+     * Retrieve many Personas from their logins (rut or email) in one query.
+     *
+     * @param logins to use.
+     * @return the Personas found (ordered by id, profile only: read-only, no password).
+     */
+    List<Persona> retrieveByLogins(Collection<String> logins);
+
+    /**
+     * Retrieve a page of Personas (ordered by id).
+     *
+     * @param afterId the last id of the previous page (null for the first page).
+     * @param size    of the page.
+     * @return the page of Personas (empty if there are no more, profile only: read-only, no password).
+     */
+    List<Persona> retrievePage(Integer afterId, int size);
+
     /**
      * Retrieve a Persona from login + password.
      *
      * @param login    to use (rut or email).
      * @param password to check.
      * @return the Persona.
+     * @throws OverloadedException if the backend can't take more work.
      */
     Optional<Persona> authenticate(String login, String password);
 
+    /**
+     * Retrieve a Persona from login + password without blocking the caller: the lookup runs in the database executor
+     * and the verification in the hashing pool.
+     *
+     * @param login    to use (rut or email).
+     * @param password to check.
+     * @return the future Persona (fails with {@link OverloadedException} if the backend can't take more work).
+     */
+    CompletableFuture<Optional<Persona>> authenticateAsync(String login, String password);
+
 
     /**
      * Save a Persona into the Backend.
@@ -60,6 +93,33 @@ public interface FivetController {
      */
     void add(Persona persona, String password);
 
+    /**
+     * Save many Personas into the Backend, hashing the passwords in parallel.
+     *
+     * @param personas  to save.
+     * @param passwords to hash (same order).
+     * @return the errors: position in the list -> message (empty if all saved).
+     */
+    Map<Integer, String> addAll(List<Persona> personas, List<String> passwords);
+
+    /**
+     * Save many Personas into the Backend without blocking the caller.
+     *
+     * @param personas  to save.
+     * @param passwords to hash (same order).
+     * @return the future errors: position in the list -> message (fails with {@link OverloadedException} if the
+     *         backend can't take more work).
+     */
+    CompletableFuture<Map<Integer, String>> addAllAsync(List<Persona> personas, List<String> passwords);
+
+    /**
+     * Change the password of a Persona.
+     *
+     * @param idPersona to update.
+     * @param password  to hash.
+     */
+    void changePassword(Integer idPersona, String password);
+
     /**
      * Delete a Persona from the Backend.
      *
@@ -67,4 +127,11 @@ public interface FivetController {
      */
     void delete(Integer idPersona);
 
+    /**
+     * Listen the writes of the existing Personas (password changed, rehashed or deleted).
+     *
+     * @param listener of the id of the Persona written.
+     */
+    void addChangeListener(Consumer<Integer> listener);
+
 }
@@ -23,27 +23,76 @@
 
 package cl.ucn.disc.pdis.fivet.services;
 
+import cl.ucn.disc.pdis.fivet.metrics.Metrics;
+import cl.ucn.disc.pdis.fivet.metrics.Timer;
 import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.orm.CacheMetrics;
+import cl.ucn.disc.pdis.fivet.orm.CachingDAO;
+import cl.ucn.disc.pdis.fivet.orm.ConnectionSources;
+import cl.ucn.disc.pdis.fivet.orm.AsyncDAO;
 import cl.ucn.disc.pdis.fivet.orm.DAO;
+import cl.ucn.disc.pdis.fivet.orm.ExecutorAsyncDAO;
+import cl.ucn.disc.pdis.fivet.orm.Migration;
+import cl.ucn.disc.pdis.fivet.orm.Migrator;
 import cl.ucn.disc.pdis.fivet.orm.ORMLiteDAO;
-import cl.ucn.disc.pdis.fivet.orm.ZonedDateTimeType;
-import com.j256.ormlite.field.DataPersisterManager;
-import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import cl.ucn.disc.pdis.fivet.orm.PoolMetrics;
+import cl.ucn.disc.pdis.fivet.orm.PooledConnectionSource;
+import cl.ucn.disc.pdis.fivet.orm.Projection;
+import cl.ucn.disc.pdis.fivet.orm.Schema;
+import cl.ucn.disc.pdis.fivet.orm.TimestampFormat;
+import cl.ucn.disc.pdis.fivet.orm.TimestampMigration;
 import com.j256.ormlite.support.ConnectionSource;
-import com.j256.ormlite.table.TableUtils;
 import lombok.NonNull;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * The Controller Implementation.
  */
 @Slf4j
-public final class FivetControllerImpl implements FivetController {
+public final class FivetControllerImpl implements FivetController, AutoCloseable {
+
+    /**
+     * The attributes used as login.
+     */
+    private static final List<String> LOGIN_ATTRIBUTES = List.of("rut", "email");
+
+    /**
+     * The login (and password) used by the warm-up (never a Persona).
+     */
+    private static final String WARM_UP_LOGIN = "fivet-warm-up";
+
+    /**
+     * The columns of the timestamps of Persona.
+     */
+    private static final String[] TIMESTAMPS = {"createdAt", "deletedAt"};
+
+    /**
+     * The columns of the profile (no password hash, no timestamps).
+     */
+    private static final Projection PROFILE = Projection.of("rut", "nombre", "email", "direccion");
+
+    /**
+     * The columns to authenticate (the profile + the password hash).
+     */
+    private static final Projection AUTHENTICATION = Projection.of("rut", "nombre", "email", "direccion", "password");
 
     /**
      * The Dao.
@@ -51,37 +100,324 @@ public final class FivetControllerImpl implements FivetController {
     private final DAO<Persona> thePersonaDAO;
 
     /**
-     * The Hasher.
+     * The Dao without the cache (fresh instances to change: the cached ones are shared).
+     */
+    private final DAO<Persona> directPersonaDAO;
+
+    /**
+     * The async Dao.
+     */
+    private final AsyncDAO<Persona> asyncPersonaDAO;
+
+    /**
+     * The executor of the async queries.
+     */
+    private final ThreadPoolExecutor databaseExecutor;
+
+    /**
+     * The Connection.
+     */
+    private final ConnectionSource connectionSource;
+
+    /**
+     * The cost of the Hasher.
      */
-    private final static PasswordEncoder PASSWORD_ENCODER = new Argon2PasswordEncoder();
+    private final Argon2Config argon2;
+
+    /**
+     * The time of the password verification (queue + Argon2).
+     */
+    private final Timer verificationTimer = Metrics.timer("controller.argon2.matches");
+
+    /**
+     * The Personas with a rehash in progress.
+     */
+    private final Set<Integer> rehashing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The pool of hashing.
+     */
+    private final HashingExecutor hashingExecutor;
+
+    /**
+     * The cache of verified credentials.
+     */
+    private final CredentialCache credentialCache;
+
+    /**
+     * The warm-up.
+     */
+    private final WarmUpConfig warmUpConfig;
+
+    /**
+     * The listeners of the writes.
+     */
+    private final List<Consumer<Integer>> changeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The Bloom filter of the logins of the live Personas (null if disabled).
+     */
+    private final BloomFilter loginFilter;
 
     /**
      * The Constructor.
      *
      * @param databaseUrl to use.
+     * @param reset       drop the tables before applying the migrations.
+     */
+    public FivetControllerImpl(String databaseUrl, boolean reset) {
+        this(ControllerConfig.of(databaseUrl), reset);
+    }
+
+    /**
+     * The Constructor.
+     *
+     * @param config to use.
+     * @param reset  drop the tables before applying the migrations.
      */
     @SneakyThrows
-    public FivetControllerImpl(String databaseUrl, boolean initialize) {
-        log.debug("Registering the ZonedDateTimeType ..");
-        DataPersisterManager.registerDataPersisters(ZonedDateTimeType.INSTANCE);
+    public FivetControllerImpl(@NonNull ControllerConfig config, boolean reset) {
+        log.debug("Registering the ZonedDateTime persister: {} ..", config.getDatabase().getTimestampFormat());
+        config.getDatabase().getTimestampFormat().register();
 
         // The Connection
-        log.debug("Building the Connection using : {}", databaseUrl);
-        ConnectionSource cs = new JdbcConnectionSource(databaseUrl);
-
-        if (initialize) {
-            log.debug("Dropping the tables..");
-            // Drop the dabase
-            TableUtils.dropTable(cs, Persona.class, true);
+        log.debug("Building the Connection using : {}", config.getDatabase());
+        ConnectionSource cs = ConnectionSources.create(config.getDatabase());
+        this.connectionSource = cs;
 
-            log.debug("Creating the tables ..");
-            // Create the database
-            TableUtils.createTable(cs, Persona.class);
+        // The schema
+        TimestampFormat timestampFormat = config.getDatabase().getTimestampFormat();
+        Migrator migrator = new Migrator(cs, migrations(timestampFormat));
+        if (reset) {
+            log.warn("Dropping the tables ..");
+            Schema.dropTable(cs, Persona.class);
+            migrator.dropHistory();
         }
+        migrator.migrate();
+        TimestampMigration.apply(cs, Persona.class, timestampFormat, TIMESTAMPS);
 
         // The Dao
         log.debug("Build the ORMLiteDAO ..");
-        this.thePersonaDAO = new ORMLiteDAO<>(cs, Persona.class);
+        DAO<Persona> personaDAO = new ORMLiteDAO<>(cs, Persona.class);
+        this.directPersonaDAO = personaDAO;
+        if (config.getPersonaCache().isEnabled()) {
+            personaDAO = new CachingDAO<>(personaDAO, config.getPersonaCache(), LOGIN_ATTRIBUTES);
+        }
+        this.thePersonaDAO = personaDAO;
+
+        // The filter of logins
+        this.loginFilter = config.getLoginFilter().isEnabled()
+                ? this.buildLoginFilter(config.getLoginFilter())
+                : null;
+
+        // The async Dao
+        this.databaseExecutor = ExecutorAsyncDAO.newExecutor(config.getDatabase());
+        this.asyncPersonaDAO = new ExecutorAsyncDAO<>(personaDAO, this.databaseExecutor);
+
+        // The Hasher
+        this.argon2 = config.getArgon2().isCalibrate()
+                ? Argon2Calibrator.calibrate(config.getArgon2())
+                : config.getArgon2();
+        log.debug("Using Argon2: {}", this.argon2);
+        this.hashingExecutor = new HashingExecutor(this.argon2.toEncoder(), config.getHashing());
+
+        // The cache of verifications
+        this.credentialCache = new CredentialCache(config.getCredentialCache());
+
+        this.warmUpConfig = config.getWarmUp();
+    }
+
+    /**
+     * Warm up the path of the first calls before serving them: open the connections and prepare the login query (one
+     * lookup by thread of the database executor), load the Argon2 encoder and compile the verification (one by
+     * thread of the hashing pool), prepare the other queries and preload the cache of Personas.
+     *
+     * @return the time it took (ms).
+     */
+    public long warmUp() {
+        if (!this.warmUpConfig.isEnabled()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        log.debug("Warming up: {} ..", this.warmUpConfig);
+
+        // The authentication path (a login that doesn't exist: no data touched, the filter skipped)
+        String hash = this.hashingExecutor.encode(WARM_UP_LOGIN).join();
+        int databaseThreads = this.databaseExecutor.getMaximumPoolSize();
+        int hashingThreads = this.hashingExecutor.getThreads();
+        for (int i = 0; i < this.warmUpConfig.getIterations(); i++) {
+            List<CompletableFuture<?>> round = new ArrayList<>(databaseThreads + hashingThreads);
+            for (int t = 0; t < databaseThreads; t++) {
+                round.add(this.asyncPersonaDAO.getAny(LOGIN_ATTRIBUTES, WARM_UP_LOGIN, AUTHENTICATION));
+            }
+            for (int t = 0; t < hashingThreads; t++) {
+                round.add(this.hashingExecutor.matches(WARM_UP_LOGIN, hash));
+            }
+            CompletableFuture.allOf(round.toArray(CompletableFuture[]::new)).join();
+        }
+
+        // The other queries
+        this.thePersonaDAO.get(0);
+        this.thePersonaDAO.getAnyIn(LOGIN_ATTRIBUTES, List.of(WARM_UP_LOGIN), PROFILE);
+        this.thePersonaDAO.getPage(null, 1, PROFILE);
+
+        // The cache of Personas (by rut and email): full pages, one query by page
+        int preloaded = 0;
+        if (this.thePersonaDAO instanceof CachingDAO<Persona> cachingDAO) {
+            Integer afterId = null;
+            while (preloaded < this.warmUpConfig.getPreload()) {
+                List<Persona> page = cachingDAO.getPage(afterId,
+                        Math.min(1_000, this.warmUpConfig.getPreload() - preloaded));
+                if (page.isEmpty()) {
+                    break;
+                }
+                cachingDAO.preload(page);
+                preloaded += page.size();
+                afterId = page.get(page.size() - 1).getId();
+            }
+        }
+
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        log.info("Warmed up in {}ms: {} rounds of {} lookups + {} verifications, {} Personas preloaded", elapsed,
+                this.warmUpConfig.getIterations(), databaseThreads, hashingThreads, preloaded);
+        return elapsed;
+    }
+
+    /**
+     * Stop the executors (waiting for the work in progress) and close the connections.
+     */
+    @SneakyThrows
+    @Override
+    public void close() {
+        log.debug("Closing the Controller ..");
+        if (!this.hashingExecutor.shutdown(10, TimeUnit.SECONDS)) {
+            log.warn("Hashing still in progress after 10s, cancelled.");
+        }
+        this.databaseExecutor.shutdown();
+        if (!this.databaseExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Queries still in progress after 10s, cancelled.");
+            this.databaseExecutor.shutdownNow();
+        }
+        this.connectionSource.close();
+    }
+
+    /**
+     * The versions of the schema (append only, the same for every configuration).
+     *
+     * @param timestampFormat stored when the Persona table is created.
+     * @return the migrations.
+     */
+    private static List<Migration> migrations(TimestampFormat timestampFormat) {
+        return List.of(
+                Migration.of(1, "The Persona table", cs -> {
+                    if (Schema.createTableIfNotExists(cs, Persona.class)) {
+                        Schema.putSetting(cs, TimestampFormat.SETTING, timestampFormat.name());
+                    }
+                }),
+                Migration.of(2, "The index of the live Personas",
+                        cs -> Schema.createLiveIndex(cs, Persona.class))
+        );
+    }
+
+    /**
+     * Build the filter of logins scanning the live Personas (by pages, only the rut and email columns).
+     *
+     * @param config to use.
+     * @return the BloomFilter.
+     */
+    private BloomFilter buildLoginFilter(LoginFilterConfig config) {
+        long start = System.nanoTime();
+        BloomFilter filter = new BloomFilter(config.getExpectedLogins(), config.getFpp());
+        Projection logins = Projection.of("rut", "email");
+        long personas = 0;
+        Integer afterId = null;
+        while (true) {
+            List<Persona> page = this.thePersonaDAO.getPage(afterId, config.getScanPageSize(), logins);
+            if (page.isEmpty()) {
+                break;
+            }
+            for (Persona persona : page) {
+                filter.put(persona.getRut());
+                filter.put(persona.getEmail());
+            }
+            personas += page.size();
+            afterId = page.get(page.size() - 1).getId();
+        }
+        log.info("Login filter of {} Personas built in {}ms: {}", personas, (System.nanoTime() - start) / 1_000_000,
+                filter.getMetrics());
+        if (personas * 2 > config.getExpectedLogins()) {
+            log.warn("The login filter expects {} logins but there are {}: the fpp will be over {}",
+                    config.getExpectedLogins(), personas * 2, config.getFpp());
+        }
+        return filter;
+    }
+
+    /**
+     * @param login to check.
+     * @return false if no live Persona has the login (skip the database), true if it might exist.
+     */
+    private boolean mightExist(String login) {
+        return this.loginFilter == null || login == null || this.loginFilter.mightContain(login);
+    }
+
+    /**
+     * Add the logins of a Persona to the filter (before saving it: a Persona is never missed).
+     *
+     * @param persona to add.
+     */
+    private void putLogins(Persona persona) {
+        if (this.loginFilter != null) {
+            this.loginFilter.put(persona.getRut());
+            this.loginFilter.put(persona.getEmail());
+        }
+    }
+
+    /**
+     * @return the metrics of the Bloom filter of logins (empty if not enabled).
+     */
+    public Optional<BloomFilterMetrics> getLoginFilterMetrics() {
+        return Optional.ofNullable(this.loginFilter).map(BloomFilter::getMetrics);
+    }
+
+    /**
+     * @return the metrics of the pool of connections (empty if not pooled).
+     */
+    public Optional<PoolMetrics> getPoolMetrics() {
+        if (this.connectionSource instanceof PooledConnectionSource pooled) {
+            return Optional.of(pooled.getMetrics());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return the metrics of the cache of Personas (empty if not enabled).
+     */
+    public Optional<CacheMetrics> getPersonaCacheMetrics() {
+        if (this.thePersonaDAO instanceof CachingDAO<Persona> cachingDAO) {
+            return Optional.of(cachingDAO.getMetrics());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return the number of queries waiting for a thread of the database executor.
+     */
+    public int getDatabaseQueueDepth() {
+        return this.databaseExecutor.getQueue().size();
+    }
+
+    /**
+     * @return the metrics of the pool of hashing.
+     */
+    public HashingMetrics getHashingMetrics() {
+        return this.hashingExecutor.getMetrics();
+    }
+
+    /**
+     * @return the metrics of the cache of verified credentials.
+     */
+    public CredentialCacheMetrics getCredentialCacheMetrics() {
+        return this.credentialCache.getMetrics();
     }
 
     /**
@@ -90,12 +426,41 @@ public final class FivetControllerImpl implements FivetController {
      */
     @Override
     public Optional<Persona> retrieveByLogin(String login) {
-        Optional<Persona> oPersona = this.thePersonaDAO.get("rut", login);
+        // Definitely unknown -> skip the database
+        if (!this.mightExist(login)) {
+            return Optional.empty();
+        }
+        // One round trip: rut = login OR email = login
+        return this.thePersonaDAO.getAny(LOGIN_ATTRIBUTES, login);
+    }
 
-        if (oPersona.isPresent()) {
-            return oPersona;
+    /**
+     * Retrieve many Personas from their logins (rut or email) in one query.
+     *
+     * @param logins to use.
+     * @return the Personas found (ordered by id, profile only: read-only, no password).
+     */
+    @Override
+    public List<Persona> retrieveByLogins(@NonNull Collection<String> logins) {
+        // Only the logins that might exist
+        List<String> candidates = logins.stream().filter(this::mightExist).toList();
+        if (candidates.isEmpty()) {
+            return List.of();
         }
-        return this.thePersonaDAO.get("email", login);
+        // rut IN (..) OR email IN (..)
+        return this.thePersonaDAO.getAnyIn(LOGIN_ATTRIBUTES, candidates, PROFILE);
+    }
+
+    /**
+     * Retrieve a page of Personas (ordered by id).
+     *
+     * @param afterId the last id of the previous page (null for the first page).
+     * @param size    of the page.
+     * @return the page of Personas (empty if there are no more, profile only: read-only, no password).
+     */
+    @Override
+    public List<Persona> retrievePage(Integer afterId, int size) {
+        return this.thePersonaDAO.getPage(afterId, size, PROFILE);
     }
 
     /**
@@ -104,25 +469,115 @@ public final class FivetControllerImpl implements FivetController {
      * @param login    to use (rut or email).
      * @param password to check.
      * @return the Persona.
+     * @throws OverloadedException if the backend can't take more work.
      */
     @Override
     public Optional<Persona> authenticate(String login, String password) {
-        Optional<Persona> oPersona = this.retrieveByLogin(login);
+        try {
+            return this.authenticateAsync(login, password).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
 
-        // Empty -> get out of here!
-        if (oPersona.isEmpty()) {
-            log.warn("Persona with login <{}> not found.", login);
-            return Optional.empty();
+    /**
+     * Retrieve a Persona from login + password without blocking the caller.
+     *
+     * @param login    to use (rut or email).
+     * @param password to check.
+     * @return the future Persona.
+     */
+    @Override
+    public CompletableFuture<Optional<Persona>> authenticateAsync(String login, String password) {
+        // Definitely unknown -> get out of here without a query!
+        if (!this.mightExist(login)) {
+            log.warn("Persona with login <{}> not found (filtered).", login);
+            return CompletableFuture.completedFuture(Optional.empty());
         }
 
-        // Wrong password -> get out of there!
-        if (!PASSWORD_ENCODER.matches(password, oPersona.get().getPassword())) {
-            log.warn("Persona with login={} use a wrong password", login);
-            return Optional.empty();
+        CompletableFuture<Optional<Persona>> lookup;
+        try {
+            lookup = this.asyncPersonaDAO.getAny(LOGIN_ATTRIBUTES, login, AUTHENTICATION);
+        } catch (RejectedExecutionException ex) {
+            return CompletableFuture.failedFuture(new OverloadedException(
+                    "Database queue full (" + this.databaseExecutor.getQueue().size() + " waiting)", ex));
+        }
+
+        return lookup.thenCompose(oPersona -> {
+            // Empty -> get out of here!
+            if (oPersona.isEmpty()) {
+                log.warn("Persona with login <{}> not found.", login);
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+
+            // Verified before -> skip the hashing
+            Persona persona = oPersona.get();
+            if (this.credentialCache.isVerified(login, password, persona)) {
+                return CompletableFuture.completedFuture(oPersona);
+            }
+
+            long verificationStart = System.nanoTime();
+            return this.hashingExecutor.matches(password, persona.getPassword()).thenApply(matches -> {
+                this.verificationTimer.recordSince(verificationStart);
+
+                // Wrong password -> get out of there!
+                if (!matches) {
+                    log.warn("Persona with login={} use a wrong password", login);
+                    return Optional.<Persona>empty();
+                }
+
+                // Remember the verification
+                this.credentialCache.put(login, password, persona);
+
+                // Outdated cost -> hash again (in background)
+                if (this.argon2.needsRehash(persona.getPassword())) {
+                    this.rehash(persona, password);
+                }
+
+                // All ok!
+                return oPersona;
+            });
+        });
+    }
+
+    /**
+     * Hash again the password of a Persona with the current cost and store it (async). Skipped if the pool of hashing
+     * is full or the password was changed in between: the next login will try again.
+     *
+     * @param persona  verified.
+     * @param password verified.
+     */
+    private void rehash(Persona persona, String password) {
+        Integer idPersona = persona.getId();
+        if (!this.rehashing.add(idPersona)) {
+            return;
         }
 
-        // All ok!
-        return oPersona;
+        String oldHash = persona.getPassword();
+        try {
+            this.hashingExecutor.encode(password).thenAccept(hash -> {
+                Persona current = this.directPersonaDAO.get(idPersona).orElse(null);
+                if (current == null || !Objects.equals(current.getPassword(), oldHash)) {
+                    return;
+                }
+                current.setPassword(hash);
+                this.thePersonaDAO.update(current);
+                this.credentialCache.invalidate(idPersona);
+                this.changed(idPersona);
+                log.debug("Persona with id={} rehashed.", idPersona);
+            }).whenComplete((ignored, ex) -> {
+                this.rehashing.remove(idPersona);
+                if (ex != null) {
+                    log.warn("Can't rehash the Persona with id={}: {}", idPersona, ex.getMessage());
+                }
+            });
+        } catch (OverloadedException ex) {
+            this.rehashing.remove(idPersona);
+            log.debug("Rehash of the Persona with id={} skipped: {}", idPersona, ex.getMessage());
+        }
     }
 
     /**
@@ -134,11 +589,115 @@ public final class FivetControllerImpl implements FivetController {
     @Override
     public void add(@NonNull Persona persona, @NonNull String password) {
         // Hash password
-        persona.setPassword(PASSWORD_ENCODER.encode(password));
+        persona.setPassword(this.hashingExecutor.encode(password).join());
+        // Visible to the filter before the database
+        this.putLogins(persona);
         // Save the persona
         this.thePersonaDAO.save(persona);
     }
 
+    /**
+     * Save many Personas into the Backend, hashing the passwords in parallel. All the Personas are saved in one
+     * transaction; if that fails they are saved one by one to find the wrong ones.
+     *
+     * @param personas  to save.
+     * @param passwords to hash (same order).
+     * @return the errors: position in the list -> message (empty if all saved).
+     */
+    @Override
+    public Map<Integer, String> addAll(@NonNull List<Persona> personas, @NonNull List<String> passwords) {
+        if (personas.size() != passwords.size()) {
+            throw new IllegalArgumentException("Personas and passwords sizes differ");
+        }
+
+        // Hash passwords
+        return this.saveAll(personas, this.hashingExecutor.encodeAll(passwords));
+    }
+
+    /**
+     * Save many Personas into the Backend without blocking the caller: the passwords are hashed in the hashing pool
+     * and the Personas are saved in the database pool.
+     *
+     * @param personas  to save.
+     * @param passwords to hash (same order).
+     * @return the future errors: position in the list -> message (fails with {@link OverloadedException} if the
+     *         backend can't take more work).
+     */
+    @Override
+    public CompletableFuture<Map<Integer, String>> addAllAsync(@NonNull List<Persona> personas,
+                                                               @NonNull List<String> passwords) {
+        if (personas.size() != passwords.size()) {
+            throw new IllegalArgumentException("Personas and passwords sizes differ");
+        }
+        return this.hashingExecutor.encodeAllAsync(passwords)
+                .thenApplyAsync(hashes -> this.saveAll(personas, hashes), this.databaseExecutor)
+                .exceptionallyCompose(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null
+                            ? ex.getCause()
+                            : ex;
+                    if (cause instanceof RejectedExecutionException) {
+                        return CompletableFuture.failedFuture(new OverloadedException("Database queue full ("
+                                + this.databaseExecutor.getQueue().size() + " waiting)", cause));
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
+    /**
+     * Save many Personas with their hashes in one transaction; if that fails they are saved one by one to find the
+     * wrong ones.
+     *
+     * @param personas to save.
+     * @param hashes   of the passwords (same order).
+     * @return the errors: position in the list -> message (empty if all saved).
+     */
+    private Map<Integer, String> saveAll(List<Persona> personas, List<String> hashes) {
+        for (int i = 0; i < personas.size(); i++) {
+            personas.get(i).setPassword(hashes.get(i));
+        }
+
+        // Visible to the filter before the database (the failed ones stay as false positives)
+        personas.forEach(this::putLogins);
+
+        // Save the personas (all or nothing)
+        Map<Integer, String> errors = new TreeMap<>();
+        try {
+            this.thePersonaDAO.saveAll(personas);
+            return errors;
+        } catch (Exception ex) {
+            log.warn("Batch of {} Personas failed, saving one by one: {}", personas.size(), ex.getMessage());
+        }
+
+        // One by one
+        for (int i = 0; i < personas.size(); i++) {
+            try {
+                this.thePersonaDAO.save(personas.get(i));
+            } catch (Exception ex) {
+                errors.put(i, ex.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Change the password of a Persona.
+     *
+     * @param idPersona to update.
+     * @param password  to hash.
+     */
+    @Override
+    public void changePassword(@NonNull Integer idPersona, @NonNull String password) {
+        // A fresh copy: the cached one is shared until the update is committed
+        Persona persona = this.directPersonaDAO.get(idPersona).orElseThrow();
+        // Hash password
+        persona.setPassword(this.hashingExecutor.encode(password).join());
+        // Update the persona (and invalidate the cached one)
+        this.thePersonaDAO.update(persona);
+        // Forget the old verifications
+        this.credentialCache.invalidate(idPersona);
+        this.changed(idPersona);
+    }
+
     /**
      * Delete a Persona from the Backend.
      *
@@ -146,6 +705,32 @@ public final class FivetControllerImpl implements FivetController {
      */
     @Override
     public void delete(Integer idPersona) {
+        // The logins stay in the filter (no delete in a Bloom filter): false positives, the database answers
         this.thePersonaDAO.delete(idPersona);
+        // Forget the verifications
+        this.credentialCache.invalidate(idPersona);
+        this.changed(idPersona);
     }
+
+    /**
+     * Listen the writes of the existing Personas (password changed, rehashed or deleted).
+     *
+     * @param listener of the id of the Persona written.
+     */
+    @Override
+    public void addChangeListener(@NonNull Consumer<Integer> listener) {
+        this.changeListeners.add(listener);
+    }
+
+    /**
+     * Notify the listeners.
+     *
+     * @param idPersona written.
+     */
+    private void changed(Integer idPersona) {
+        for (Consumer<Integer> listener : this.changeListeners) {
+            listener.accept(idPersona);
+        }
+    }
+
 }
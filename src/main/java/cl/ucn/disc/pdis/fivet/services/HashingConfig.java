@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet.services;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The configuration of the pool of password hashing.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Builder
+@Getter
+@ToString
+public final class HashingConfig {
+
+    /**
+     * The number of hashing threads.
+     */
+    @Builder.Default
+    private final int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The max number of hashing tasks waiting for a thread.
+     */
+    @Builder.Default
+    private final int queueCapacity = 4 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Build the configuration from the System properties (-Dfivet.hashing.*).
+     *
+     * @return the HashingConfig.
+     */
+    public static HashingConfig fromSystemProperties() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return HashingConfig.builder()
+                .threads(Integer.getInteger("fivet.hashing.threads", processors))
+                .queueCapacity(Integer.getInteger("fivet.hashing.queueCapacity", 4 * processors))
+                .build();
+    }
+
+}
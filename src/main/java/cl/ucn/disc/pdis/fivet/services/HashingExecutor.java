@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet.services;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * The bounded pool to hash and verify passwords outside the gRPC threads.
+ * <p>
+ * When the queue is full the work is rejected with an {@link OverloadedException} instead of piling up.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class HashingExecutor {
+
+    /**
+     * The Hasher.
+     */
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * The pool.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * The hashes of the imports in flight (at most one by thread, so an import never floods the queue).
+     */
+    private final Semaphore importPermits;
+
+    /**
+     * Number of rejected tasks.
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Number of verifications.
+     */
+    private final LongAdder verifications = new LongAdder();
+
+    /**
+     * Total time verifying.
+     */
+    private final LongAdder verificationNanos = new LongAdder();
+
+    /**
+     * Max time verifying.
+     */
+    private final LongAccumulator maxVerificationNanos = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Number of tasks executed.
+     */
+    private final LongAdder executed = new LongAdder();
+
+    /**
+     * Total time waiting in the queue.
+     */
+    private final LongAdder waitNanos = new LongAdder();
+
+    /**
+     * The Constructor.
+     *
+     * @param passwordEncoder to use.
+     * @param config          to use.
+     */
+    public HashingExecutor(@NonNull PasswordEncoder passwordEncoder, @NonNull HashingConfig config) {
+        this.passwordEncoder = passwordEncoder;
+
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "fivet-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        log.debug("Building the HashingExecutor: {}", config);
+        this.executor = new ThreadPoolExecutor(
+                config.getThreads(),
+                config.getThreads(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        this.importPermits = new Semaphore(config.getThreads());
+    }
+
+    /**
+     * Hash a password.
+     *
+     * @param rawPassword to hash.
+     * @return the future hash.
+     */
+    public CompletableFuture<String> encode(@NonNull String rawPassword) {
+        return this.submit(() -> this.passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Hash many passwords in parallel (bulk). Only one hash by thread of the pool is in flight at a time, the caller
+     * waits for a free slot, so a big import shares the queue with the verifications instead of filling it.
+     *
+     * @param rawPasswords to hash.
+     * @return the hashes (same order).
+     * @throws OverloadedException if the queue is full (of other work).
+     */
+    public List<String> encodeAll(@NonNull List<String> rawPasswords) {
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            try {
+                this.importPermits.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while hashing", ex);
+            }
+            try {
+                hashes.add(this.encode(rawPassword).whenComplete((hash, ex) -> this.importPermits.release()));
+            } catch (OverloadedException ex) {
+                this.importPermits.release();
+                throw ex;
+            }
+        }
+        return hashes.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Hash many passwords in parallel without blocking the caller. Only one hash by thread of the pool is in flight
+     * for this call: the next one is submitted when one finishes.
+     *
+     * @param rawPasswords to hash.
+     * @return the future hashes (same order); fails with {@link OverloadedException} if the queue is full.
+     */
+    public CompletableFuture<List<String>> encodeAllAsync(@NonNull List<String> rawPasswords) {
+        CompletableFuture<List<String>> result = new CompletableFuture<>();
+        if (rawPasswords.isEmpty()) {
+            result.complete(List.of());
+            return result;
+        }
+        String[] hashes = new String[rawPasswords.size()];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger pending = new AtomicInteger(rawPasswords.size());
+        int window = Math.min(this.getThreads(), rawPasswords.size());
+        for (int i = 0; i < window; i++) {
+            this.encodeNext(rawPasswords, hashes, next, pending, result);
+        }
+        return result;
+    }
+
+    /**
+     * Hash the next password of {@link #encodeAllAsync} and, when done, the one after it.
+     *
+     * @param rawPasswords to hash.
+     * @param hashes       the hashes (same order).
+     * @param next         the position of the next password.
+     * @param pending      the number of hashes not done.
+     * @param result       to complete.
+     */
+    private void encodeNext(List<String> rawPasswords, String[] hashes, AtomicInteger next, AtomicInteger pending,
+                            CompletableFuture<List<String>> result) {
+        int position = next.getAndIncrement();
+        if (position >= rawPasswords.size() || result.isDone()) {
+            return;
+        }
+        try {
+            this.encode(rawPasswords.get(position)).whenComplete((hash, ex) -> {
+                if (ex != null) {
+                    result.completeExceptionally(ex);
+                    return;
+                }
+                hashes[position] = hash;
+                if (pending.decrementAndGet() == 0) {
+                    result.complete(List.of(hashes));
+                } else {
+                    this.encodeNext(rawPasswords, hashes, next, pending, result);
+                }
+            });
+        } catch (OverloadedException ex) {
+            result.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * Verify a password against a hash.
+     *
+     * @param rawPassword     to check.
+     * @param encodedPassword to use.
+     * @return the future result of the verification.
+     */
+    public CompletableFuture<Boolean> matches(@NonNull String rawPassword, @NonNull String encodedPassword) {
+        return this.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                return this.passwordEncoder.matches(rawPassword, encodedPassword);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                this.verifications.increment();
+                this.verificationNanos.add(elapsed);
+                this.maxVerificationNanos.accumulate(elapsed);
+            }
+        });
+    }
+
+    /**
+     * @return the number of threads of the pool.
+     */
+    public int getThreads() {
+        return this.executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Stop taking hashes and wait for the ones in progress (cancelled after the timeout).
+     *
+     * @param timeout to wait.
+     * @param unit    of the timeout.
+     * @return true if all the hashes finished in time.
+     */
+    public boolean shutdown(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        this.executor.shutdown();
+        if (this.executor.awaitTermination(timeout, unit)) {
+            return true;
+        }
+        this.executor.shutdownNow();
+        return false;
+    }
+
+    /**
+     * @return the current metrics of the pool.
+     */
+    public HashingMetrics getMetrics() {
+        long verifications = this.verifications.sum();
+        long executed = this.executed.sum();
+        return HashingMetrics.builder()
+                .queueDepth(this.executor.getQueue().size())
+                .active(this.executor.getActiveCount())
+                .rejected(this.rejected.sum())
+                .verifications(verifications)
+                .averageVerificationMillis(verifications == 0 ? 0 : toMillis(this.verificationNanos.sum()) / verifications)
+                .maxVerificationMillis(toMillis(this.maxVerificationNanos.get()))
+                .averageWaitMillis(executed == 0 ? 0 : toMillis(this.waitNanos.sum()) / executed)
+                .build();
+    }
+
+    /**
+     * Submit a task to the pool.
+     *
+     * @param task to run.
+     * @param <R>  type of the result.
+     * @return the future result.
+     */
+    private <R> CompletableFuture<R> submit(Supplier<R> task) {
+        long submitted = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                this.executed.increment();
+                this.waitNanos.add(System.nanoTime() - submitted);
+                return task.get();
+            }, this.executor);
+        } catch (RejectedExecutionException ex) {
+            this.rejected.increment();
+            throw new OverloadedException("Hashing queue full (" + this.executor.getQueue().size() + " waiting)", ex);
+        }
+    }
+
+    /**
+     * @param nanos to convert.
+     * @return the nanos as millis.
+     */
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+}
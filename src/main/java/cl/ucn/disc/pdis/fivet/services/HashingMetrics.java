@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet.services;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A snapshot of the metrics of the pool of password hashing.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Builder
+@Getter
+@ToString
+public final class HashingMetrics {
+
+    /**
+     * The number of tasks waiting in the queue.
+     */
+    private final int queueDepth;
+
+    /**
+     * The number of threads running a task.
+     */
+    private final int active;
+
+    /**
+     * The number of tasks rejected because the queue was full.
+     */
+    private final long rejected;
+
+    /**
+     * The number of verifications (matches).
+     */
+    private final long verifications;
+
+    /**
+     * The average time (ms) of a verification.
+     */
+    private final double averageVerificationMillis;
+
+    /**
+     * The max time (ms) of a verification.
+     */
+    private final double maxVerificationMillis;
+
+    /**
+     * The average time (ms) of a task waiting in the queue.
+     */
+    private final double averageWaitMillis;
+
+}
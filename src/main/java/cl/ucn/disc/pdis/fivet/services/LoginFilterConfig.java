@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.services;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The configuration of the Bloom filter of logins (rut and email of the live Personas).
+ * <p>
+ * The filter is filled at startup and by this controller only: don't enable it when other processes write Personas
+ * into the same database (their logins would be rejected). Sizing (two logins by Persona, fpp 1%): 1M Personas take
+ * 2.3 MiB with 7 hashes, 10M Personas 22.9 MiB.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Builder
+@Getter
+@ToString
+public final class LoginFilterConfig {
+
+    /**
+     * Use the filter?
+     */
+    @Builder.Default
+    private final boolean enabled = false;
+
+    /**
+     * The expected number of logins (two by Persona: rut and email).
+     */
+    @Builder.Default
+    private final long expectedLogins = 2_000_000;
+
+    /**
+     * The target false positive probability at the expected number of logins.
+     */
+    @Builder.Default
+    private final double fpp = 0.01;
+
+    /**
+     * The size of the page of the scan at startup.
+     */
+    @Builder.Default
+    private final int scanPageSize = 10_000;
+
+    /**
+     * Build the configuration from the System properties (-Dfivet.loginFilter.*).
+     *
+     * @return the LoginFilterConfig.
+     */
+    public static LoginFilterConfig fromSystemProperties() {
+        return LoginFilterConfig.builder()
+                .enabled(Boolean.getBoolean("fivet.loginFilter"))
+                .expectedLogins(Long.getLong("fivet.loginFilter.expectedLogins", 2_000_000L))
+                .fpp(Double.parseDouble(System.getProperty("fivet.loginFilter.fpp", "0.01")))
+                .scanPageSize(Integer.getInteger("fivet.loginFilter.scanPageSize", 10_000))
+                .build();
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet.services;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The configuration of the warm-up of the Controller (before the server reports ready).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Builder
+@Getter
+@ToString
+public final class WarmUpConfig {
+
+    /**
+     * Warm up?
+     */
+    @Builder.Default
+    private final boolean enabled = true;
+
+    /**
+     * The rounds of the authentication path (lookups + verifications, one by thread of each pool).
+     */
+    @Builder.Default
+    private final int iterations = 50;
+
+    /**
+     * The number of Personas to load into the cache of Personas (if enabled).
+     */
+    @Builder.Default
+    private final int preload = 0;
+
+    /**
+     * Build the configuration from the System properties (-Dfivet.warmUp.*).
+     *
+     * @return the WarmUpConfig.
+     */
+    public static WarmUpConfig fromSystemProperties() {
+        WarmUpConfig defaults = WarmUpConfig.builder().build();
+        return WarmUpConfig.builder()
+                .enabled(Boolean.parseBoolean(System.getProperty("fivet.warmUp", String.valueOf(defaults.enabled))))
+                .iterations(Integer.getInteger("fivet.warmUp.iterations", defaults.iterations))
+                .preload(Integer.getInteger("fivet.warmUp.preload", defaults.preload))
+                .build();
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.orm.DatabaseConfig;
+import cl.ucn.disc.pdis.fivet.services.Argon2Config;
+import cl.ucn.disc.pdis.fivet.services.ControllerConfig;
+import cl.ucn.disc.pdis.fivet.services.FivetControllerImpl;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing the Argon2 configuration and the rehash on login.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestArgon2 {
+
+    /**
+     * The Rehash test: a login with an outdated hash stores a new one.
+     */
+    @SneakyThrows
+    @Test
+    @DisplayName("The Rehash Test")
+    void theRehash() {
+        String url = "jdbc:h2:mem:fivet_rehash;DB_CLOSE_DELAY=-1";
+        Argon2Config oldCost = Argon2Config.builder().memory(4096).iterations(2).build();
+        Argon2Config newCost = Argon2Config.builder().memory(8192).iterations(2).build();
+
+        FivetControllerImpl before = new FivetControllerImpl(ControllerConfig.builder()
+                .database(DatabaseConfig.of(url))
+                .argon2(oldCost)
+                .build(), true);
+        before.add(Persona.builder()
+                .rut("130144918")
+                .nombre("Diego Urrutia")
+                .email("durrutia@ucn.cl")
+                .build(), "durrutia123");
+
+        String oldHash = before.retrieveByLogin("130144918").orElseThrow().getPassword();
+        log.debug("Old hash: {}", oldHash);
+        Assertions.assertFalse(oldCost.needsRehash(oldHash));
+        Assertions.assertTrue(newCost.needsRehash(oldHash));
+
+        FivetControllerImpl after = new FivetControllerImpl(ControllerConfig.builder()
+                .database(DatabaseConfig.of(url))
+                .argon2(newCost)
+                .build(), false);
+        after.authenticate("130144918", "durrutia123").orElseThrow();
+
+        // The rehash is async
+        String newHash = oldHash;
+        for (int i = 0; i < 50 && newHash.equals(oldHash); i++) {
+            Thread.sleep(100);
+            newHash = after.retrieveByLogin("130144918").orElseThrow().getPassword();
+        }
+        log.debug("New hash: {}", newHash);
+        Assertions.assertFalse(newCost.needsRehash(newHash));
+
+        // Still the same password
+        after.authenticate("durrutia@ucn.cl", "durrutia123").orElseThrow();
+        Assertions.assertTrue(after.authenticate("durrutia@ucn.cl", "wrong").isEmpty());
+    }
+
+    /**
+     * The Parser test.
+     */
+    @Test
+    @DisplayName("The Parser Test")
+    void theParser() {
+        Argon2Config config = Argon2Config.builder().memory(4096).iterations(3).parallelism(1).build();
+        Assertions.assertFalse(config.needsRehash("$argon2id$v=19$m=4096,t=3,p=1$c2FsdA$aGFzaA"));
+        Assertions.assertTrue(config.needsRehash("$argon2id$v=19$m=4096,t=2,p=1$c2FsdA$aGFzaA"));
+        Assertions.assertTrue(config.needsRehash("$2a$10$notAnArgon2Hash"));
+    }
+
+}
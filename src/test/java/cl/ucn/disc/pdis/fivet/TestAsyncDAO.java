@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.orm.AsyncDAO;
+import cl.ucn.disc.pdis.fivet.orm.DataAccessException;
+import cl.ucn.disc.pdis.fivet.orm.DatabaseConfig;
+import cl.ucn.disc.pdis.fivet.orm.ExecutorAsyncDAO;
+import cl.ucn.disc.pdis.fivet.orm.ORMLiteDAO;
+import cl.ucn.disc.pdis.fivet.orm.Schema;
+import cl.ucn.disc.pdis.fivet.orm.TimestampFormat;
+import cl.ucn.disc.pdis.fivet.services.FivetControllerImpl;
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import lombok.Cleanup;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Testing the AsyncDAO.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestAsyncDAO {
+
+    /**
+     * The Errors test: the SQLException arrives as DataAccessException.
+     */
+    @SneakyThrows
+    @Test
+    @DisplayName("The Async Errors Test")
+    void theErrors() {
+        TimestampFormat.STRING.register();
+
+        @Cleanup
+        ConnectionSource cs = new JdbcConnectionSource("jdbc:h2:mem:fivet_async");
+        Schema.dropTable(cs, Persona.class);
+        Schema.createTable(cs, Persona.class);
+
+        ThreadPoolExecutor executor = ExecutorAsyncDAO.newExecutor(DatabaseConfig.of("jdbc:h2:mem:fivet_async"));
+        AsyncDAO<Persona> dao = new ExecutorAsyncDAO<>(new ORMLiteDAO<>(cs, Persona.class), executor);
+
+        dao.save(persona()).join();
+
+        Assertions.assertTrue(dao.get("email", "durrutia@ucn.cl").join().isPresent());
+        Assertions.assertTrue(dao.get(2).join().isEmpty());
+
+        // Duplicated rut
+        CompletionException ex = Assertions.assertThrows(CompletionException.class, () -> dao.save(persona()).join());
+        log.debug("Error: {}", ex.getCause().getMessage());
+        Assertions.assertInstanceOf(DataAccessException.class, ex.getCause());
+
+        executor.shutdown();
+    }
+
+    /**
+     * @return the Persona to save.
+     */
+    private static Persona persona() {
+        return Persona.builder()
+                .rut("130144918")
+                .nombre("Diego Urrutia")
+                .email("durrutia@ucn.cl")
+                .password("not-a-hash")
+                .build();
+    }
+
+    /**
+     * The Authenticate test: lookup and verification composed.
+     */
+    @Test
+    @DisplayName("The Async Authenticate Test")
+    void theAuthenticate() {
+        FivetControllerImpl controller = new FivetControllerImpl("jdbc:h2:mem:fivet_async_auth", true);
+        controller.add(Persona.builder()
+                .rut("130144918")
+                .nombre("Diego Urrutia")
+                .email("durrutia@ucn.cl")
+                .build(), "durrutia123");
+
+        Assertions.assertTrue(controller.authenticateAsync("130144918", "durrutia123").join().isPresent());
+        Assertions.assertTrue(controller.authenticateAsync("durrutia@ucn.cl", "wrong").join().isEmpty());
+        Assertions.assertTrue(controller.authenticateAsync("nobody", "durrutia123").join().isEmpty());
+    }
+
+}
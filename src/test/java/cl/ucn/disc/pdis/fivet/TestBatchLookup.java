@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.orm.DAO;
+import cl.ucn.disc.pdis.fivet.orm.ORMLiteDAO;
+import cl.ucn.disc.pdis.fivet.orm.Schema;
+import cl.ucn.disc.pdis.fivet.orm.TimestampFormat;
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import lombok.Cleanup;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Testing the IN queries over the limit of parameters of the database (chunked).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestBatchLookup {
+
+    /**
+     * The number of values: 2 attributes x 20000 values are over the limit of SQLite (32766) and of the others (2000).
+     */
+    private static final int VALUES = 20_000;
+
+    /**
+     * The directory of the SQLite file (deleted after the test).
+     */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * The Batch test.
+     *
+     * @param database to use (h2 or sqlite).
+     */
+    @SneakyThrows
+    @ParameterizedTest
+    @ValueSource(strings = {"h2", "sqlite"})
+    @DisplayName("The Batch Lookup Test")
+    void theBatch(String database) {
+        log.debug("Starting the test using: {}", database);
+
+        TimestampFormat.STRING.register();
+
+        @Cleanup
+        ConnectionSource cs = new JdbcConnectionSource(TestLoginLookup.databaseUrl(database, this.tempDir,
+                "fivet_batch"));
+        Schema.createTable(cs, Persona.class);
+
+        DAO<Persona> dao = new ORMLiteDAO<>(cs, Persona.class);
+        dao.save(Persona.builder().rut("rut-0").nombre("Persona 0").email("persona0@ucn.cl").password("x").build());
+        dao.save(Persona.builder().rut("rut-1").nombre("Persona 1").email("persona1@ucn.cl").password("x").build());
+
+        // The known logins at both ends (first and last chunk), repeated and null values ignored
+        List<String> logins = new ArrayList<>();
+        logins.add("rut-0");
+        for (int i = 0; i < VALUES; i++) {
+            logins.add("unknown-" + i);
+        }
+        logins.add(null);
+        logins.add("rut-0");
+        logins.add("persona1@ucn.cl");
+
+        List<Persona> found = dao.getAnyIn(List.of("rut", "email"), logins);
+        Assertions.assertEquals(2, found.size());
+        Assertions.assertEquals("rut-0", found.get(0).getRut());
+        Assertions.assertEquals("rut-1", found.get(1).getRut());
+
+        Schema.dropTable(cs, Persona.class);
+        log.debug("Done.");
+    }
+
+}
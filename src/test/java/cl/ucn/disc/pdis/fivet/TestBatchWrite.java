@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.orm.DAO;
+import cl.ucn.disc.pdis.fivet.orm.ORMLiteDAO;
+import cl.ucn.disc.pdis.fivet.orm.Schema;
+import cl.ucn.disc.pdis.fivet.orm.TimestampFormat;
+import cl.ucn.disc.pdis.fivet.services.FivetControllerImpl;
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import lombok.Cleanup;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.time.StopWatch;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Testing (and timing) the batch writes.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestBatchWrite {
+
+    /**
+     * The number of Personas in the batch.
+     */
+    private static final int PERSONAS = 100_000;
+
+    /**
+     * The Throughput test: 100k rows against H2.
+     */
+    @SneakyThrows
+    @Test
+    @DisplayName("The Batch Throughput Test")
+    void theThroughput() {
+        TimestampFormat.STRING.register();
+
+        @Cleanup
+        ConnectionSource cs = new JdbcConnectionSource("jdbc:h2:mem:fivet_batch");
+        Schema.dropTable(cs, Persona.class);
+        Schema.createTable(cs, Persona.class);
+        DAO<Persona> dao = new ORMLiteDAO<>(cs, Persona.class);
+
+        List<Persona> personas = new ArrayList<>(PERSONAS);
+        for (int i = 0; i < PERSONAS; i++) {
+            personas.add(Persona.builder()
+                    .rut("rut-" + i)
+                    .nombre("Persona " + i)
+                    .email("persona" + i + "@ucn.cl")
+                    .password("not-a-hash")
+                    .build());
+        }
+
+        StopWatch sw = StopWatch.createStarted();
+        dao.saveAll(personas);
+        sw.stop();
+
+        log.info("saveAll: {} rows in {} ({} rows/s)", PERSONAS, sw.formatTime(),
+                PERSONAS * 1000L / Math.max(1, sw.getTime()));
+        Assertions.assertEquals(PERSONAS, dao.getPage(null, PERSONAS + 1).size());
+
+        Schema.dropTable(cs, Persona.class);
+    }
+
+    /**
+     * The Errors test: a wrong Persona doesn't stop the others.
+     */
+    @Test
+    @DisplayName("The Batch Errors Test")
+    void theErrors() {
+        FivetControllerImpl controller = new FivetControllerImpl("jdbc:h2:mem:fivet_import", true);
+
+        List<Persona> personas = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            personas.add(Persona.builder()
+                    .rut(i == 2 ? "rut-0" : "rut-" + i)
+                    .nombre("Persona " + i)
+                    .email("persona" + i + "@ucn.cl")
+                    .build());
+        }
+
+        Map<Integer, String> errors = controller.addAll(personas, List.of("pass-0", "pass-1", "pass-2"));
+        log.debug("Errors: {}", errors);
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertTrue(errors.containsKey(2));
+
+        controller.authenticate("rut-1", "pass-1").orElseThrow();
+    }
+
+}
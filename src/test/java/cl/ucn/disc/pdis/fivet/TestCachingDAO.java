@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.orm.CacheConfig;
+import cl.ucn.disc.pdis.fivet.orm.CacheMetrics;
+import cl.ucn.disc.pdis.fivet.orm.CachingDAO;
+import cl.ucn.disc.pdis.fivet.orm.DatabaseConfig;
+import cl.ucn.disc.pdis.fivet.orm.ORMLiteDAO;
+import cl.ucn.disc.pdis.fivet.orm.Schema;
+import cl.ucn.disc.pdis.fivet.orm.TimestampFormat;
+import cl.ucn.disc.pdis.fivet.services.ControllerConfig;
+import cl.ucn.disc.pdis.fivet.services.FivetControllerImpl;
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import lombok.Cleanup;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Testing the CachingDAO.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestCachingDAO {
+
+    /**
+     * The Cache test.
+     */
+    @SneakyThrows
+    @Test
+    @DisplayName("The CachingDAO Test")
+    void theCache() {
+        log.debug("Starting the test");
+
+        TimestampFormat.STRING.register();
+
+        @Cleanup
+        ConnectionSource cs = new JdbcConnectionSource("jdbc:h2:mem:fivet_caching");
+        Schema.dropTable(cs, Persona.class);
+        Schema.createTable(cs, Persona.class);
+
+        CachingDAO<Persona> dao = new CachingDAO<>(new ORMLiteDAO<>(cs, Persona.class),
+                CacheConfig.builder().enabled(true).build(), List.of("rut", "email"));
+
+        Persona persona = Persona.builder()
+                .rut("130144918")
+                .nombre("Diego Urrutia-Astorga")
+                .email("durrutia@ucn.cl")
+                .password("not-a-hash")
+                .build();
+        dao.save(persona);
+
+        // Miss, then hits by login and id
+        {
+            dao.getAny(List.of("rut", "email"), "durrutia@ucn.cl").orElseThrow();
+            dao.getAny(List.of("rut", "email"), "durrutia@ucn.cl").orElseThrow();
+            dao.get(persona.getId()).orElseThrow();
+
+            CacheMetrics metrics = dao.getMetrics();
+            log.debug("Metrics: {}", metrics);
+            Assertions.assertEquals(2, metrics.getHits());
+            Assertions.assertEquals(1, metrics.getMisses());
+        }
+
+        // Update drops the entity
+        {
+            persona.setPassword("other-hash");
+            dao.update(persona);
+            Assertions.assertEquals(0, dao.getMetrics().getSize());
+            Assertions.assertEquals("other-hash",
+                    dao.getAny(List.of("rut", "email"), "130144918").orElseThrow().getPassword());
+        }
+
+        // A failed update drops the entity too (NOT NULL password)
+        {
+            Persona cached = dao.getAny(List.of("rut", "email"), "130144918").orElseThrow();
+            cached.setPassword(null);
+            Assertions.assertThrows(SQLException.class, () -> dao.update(cached));
+            Assertions.assertEquals(0, dao.getMetrics().getSize());
+            Assertions.assertEquals("other-hash",
+                    dao.getAny(List.of("rut", "email"), "130144918").orElseThrow().getPassword());
+        }
+
+        // Delete drops the entity
+        {
+            dao.delete(persona.getId());
+            Assertions.assertTrue(dao.getAny(List.of("rut", "email"), "durrutia@ucn.cl").isEmpty());
+            Assertions.assertTrue(dao.get(persona.getId()).isEmpty());
+        }
+
+        Schema.dropTable(cs, Persona.class);
+        log.debug("Done.");
+    }
+
+    /**
+     * The preload: hits without queries by T.
+     */
+    @SneakyThrows
+    @Test
+    @DisplayName("The CachingDAO Preload Test")
+    void thePreload() {
+        TimestampFormat.STRING.register();
+
+        @Cleanup
+        ConnectionSource cs = new JdbcConnectionSource("jdbc:h2:mem:fivet_caching_preload");
+        Schema.dropTable(cs, Persona.class);
+        Schema.createTable(cs, Persona.class);
+
+        CachingDAO<Persona> dao = new CachingDAO<>(new ORMLiteDAO<>(cs, Persona.class),
+                CacheConfig.builder().enabled(true).build(), List.of("rut", "email"));
+        dao.save(Persona.builder().rut("130144918").nombre("Diego").email("durrutia@ucn.cl").password("x").build());
+        dao.save(Persona.builder().rut("111111111").nombre("Uno").email("uno@ucn.cl").password("x").build());
+
+        dao.preload(dao.getPage(null, 10));
+        Assertions.assertEquals(2, dao.getMetrics().getSize());
+
+        // Hits by rut, email and id
+        Persona persona = dao.getAny(List.of("rut", "email"), "130144918").orElseThrow();
+        Assertions.assertSame(persona, dao.getAny(List.of("rut", "email"), "durrutia@ucn.cl").orElseThrow());
+        Assertions.assertSame(persona, dao.get(persona.getId()).orElseThrow());
+        dao.getAny(List.of("rut", "email"), "uno@ucn.cl").orElseThrow();
+
+        CacheMetrics metrics = dao.getMetrics();
+        log.debug("Metrics: {}", metrics);
+        Assertions.assertEquals(4, metrics.getHits());
+        Assertions.assertEquals(0, metrics.getMisses());
+
+        // A write still drops the preloaded entity
+        dao.update(persona);
+        Assertions.assertEquals(1, dao.getMetrics().getSize());
+
+        Schema.dropTable(cs, Persona.class);
+        log.debug("Done.");
+    }
+
+    /**
+     * The authentication (projected lookup) fills the cache.
+     */
+    @Test
+    @DisplayName("The CachingDAO Authentication Test")
+    void theAuthentication() {
+        FivetControllerImpl controller = new FivetControllerImpl(ControllerConfig.builder()
+                .database(DatabaseConfig.builder().url("jdbc:h2:mem:fivet_caching_auth;DB_CLOSE_DELAY=-1").build())
+                .personaCache(CacheConfig.builder().enabled(true).build())
+                .build(), true);
+        try {
+            controller.add(Persona.builder()
+                    .rut("130144918")
+                    .nombre("Diego Urrutia-Astorga")
+                    .email("durrutia@ucn.cl")
+                    .build(), "durrutia123");
+
+            // Miss, then hit by the same login
+            controller.authenticate("durrutia@ucn.cl", "durrutia123").orElseThrow();
+            controller.authenticate("durrutia@ucn.cl", "durrutia123").orElseThrow();
+
+            CacheMetrics metrics = controller.getPersonaCacheMetrics().orElseThrow();
+            log.debug("Metrics: {}", metrics);
+            Assertions.assertEquals(1, metrics.getMisses());
+            Assertions.assertEquals(1, metrics.getHits());
+        } finally {
+            controller.close();
+        }
+
+        log.debug("Done.");
+    }
+
+}
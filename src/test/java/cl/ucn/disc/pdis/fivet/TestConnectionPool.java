@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.orm.DatabaseConfig;
+import cl.ucn.disc.pdis.fivet.orm.PoolMetrics;
+import cl.ucn.disc.pdis.fivet.services.ControllerConfig;
+import cl.ucn.disc.pdis.fivet.services.FivetControllerImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Testing the pool of connections.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestConnectionPool {
+
+    /**
+     * The Pool test.
+     */
+    @Test
+    @DisplayName("The Pool Test")
+    void thePool() throws Exception {
+        log.debug("Starting the test");
+
+        DatabaseConfig config = DatabaseConfig.builder()
+                .url("jdbc:h2:mem:fivet_pool;DB_CLOSE_DELAY=-1")
+                .pooled(true)
+                .minIdle(2)
+                .maxSize(4)
+                .validationQuery("SELECT 1")
+                .build();
+
+        FivetControllerImpl controller = new FivetControllerImpl(ControllerConfig.builder()
+                .database(config)
+                .build(), true);
+
+        // Save the persona
+        controller.add(Persona.builder()
+                .rut("130144918")
+                .nombre("Diego Urrutia-Astorga")
+                .email("durrutia@ucn.cl")
+                .direccion("Angamos #0610")
+                .build(), "durrutia123");
+
+        // Concurrent retrieves over the pool
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            futures.add(executor.submit(() -> controller.retrieveByLogin("durrutia@ucn.cl").isPresent()));
+        }
+        for (Future<Boolean> future : futures) {
+            Assertions.assertTrue(future.get(), "Persona not found using the pool");
+        }
+        executor.shutdown();
+
+        // The metrics
+        PoolMetrics metrics = controller.getPoolMetrics().orElseThrow();
+        log.debug("Metrics: {}", metrics);
+        Assertions.assertTrue(metrics.getAcquired() >= 64, "Connections acquired < 64");
+        Assertions.assertTrue(metrics.getTotal() <= 4, "Pool size > max size");
+        Assertions.assertEquals(0, metrics.getTimeouts());
+
+        log.debug("Done.");
+    }
+
+}
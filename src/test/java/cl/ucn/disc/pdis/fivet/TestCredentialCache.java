@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.orm.DatabaseConfig;
+import cl.ucn.disc.pdis.fivet.services.ControllerConfig;
+import cl.ucn.disc.pdis.fivet.services.CredentialCacheConfig;
+import cl.ucn.disc.pdis.fivet.services.CredentialCacheMetrics;
+import cl.ucn.disc.pdis.fivet.services.FivetControllerImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing the cache of verified credentials.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestCredentialCache {
+
+    /**
+     * The Cache test.
+     */
+    @Test
+    @DisplayName("The Credential Cache Test")
+    void theCache() {
+        log.debug("Starting the test");
+
+        FivetControllerImpl controller = new FivetControllerImpl(ControllerConfig.builder()
+                .database(DatabaseConfig.of("jdbc:h2:mem:fivet_credentials"))
+                .credentialCache(CredentialCacheConfig.builder().enabled(true).build())
+                .build(), true);
+
+        // Save the persona
+        Persona persona = Persona.builder()
+                .rut("130144918")
+                .nombre("Diego Urrutia-Astorga")
+                .email("durrutia@ucn.cl")
+                .direccion("Angamos #0610")
+                .build();
+        controller.add(persona, "durrutia123");
+
+        // Miss, then hit
+        {
+            controller.authenticate("durrutia@ucn.cl", "durrutia123").orElseThrow();
+            controller.authenticate("durrutia@ucn.cl", "durrutia123").orElseThrow();
+            Assertions.assertTrue(controller.authenticate("durrutia@ucn.cl", "wrong").isEmpty());
+
+            CredentialCacheMetrics metrics = controller.getCredentialCacheMetrics();
+            log.debug("Metrics: {}", metrics);
+            Assertions.assertEquals(1, metrics.getHits());
+            Assertions.assertEquals(2, metrics.getMisses());
+        }
+
+        // Change the password: the old one must fail
+        {
+            controller.changePassword(persona.getId(), "durrutia456");
+            Assertions.assertTrue(controller.authenticate("durrutia@ucn.cl", "durrutia123").isEmpty());
+            controller.authenticate("durrutia@ucn.cl", "durrutia456").orElseThrow();
+        }
+
+        // Delete: no more logins
+        {
+            controller.delete(persona.getId());
+            Assertions.assertTrue(controller.authenticate("durrutia@ucn.cl", "durrutia456").isEmpty());
+            Assertions.assertEquals(0, controller.getCredentialCacheMetrics().getSize());
+        }
+
+        log.debug("Done.");
+    }
+
+}
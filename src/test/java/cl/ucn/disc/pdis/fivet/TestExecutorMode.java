@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Testing the ExecutorMode.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestExecutorMode {
+
+    /**
+     * The Virtual test: the executor reports the mode really used.
+     */
+    @Test
+    @DisplayName("The Virtual Mode Test")
+    void theVirtual() throws InterruptedException {
+        ExecutorMode expected = Runtime.version().feature() >= 21 ? ExecutorMode.VIRTUAL : ExecutorMode.CACHED;
+        Assertions.assertEquals(expected, ExecutorMode.VIRTUAL.effective());
+        Assertions.assertEquals(ExecutorMode.FIXED, ExecutorMode.FIXED.effective());
+
+        InstrumentedExecutor executor = new InstrumentedExecutor(ExecutorMode.VIRTUAL, 2);
+        try {
+            Assertions.assertEquals(expected, executor.getMode());
+            Assertions.assertEquals(expected, executor.getMetrics().getMode());
+        } finally {
+            executor.shutdown();
+            Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+
+        log.debug("Done.");
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.services.HashingConfig;
+import cl.ucn.disc.pdis.fivet.services.HashingExecutor;
+import cl.ucn.disc.pdis.fivet.services.HashingMetrics;
+import cl.ucn.disc.pdis.fivet.services.OverloadedException;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Testing the HashingExecutor.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestHashingExecutor {
+
+    /**
+     * The Backpressure test.
+     */
+    @SneakyThrows
+    @Test
+    @DisplayName("The Backpressure Test")
+    void theBackpressure() {
+        log.debug("Starting the test");
+
+        // The verifications wait until released
+        Argon2PasswordEncoder argon2 = new Argon2PasswordEncoder();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return argon2.encode(rawPassword);
+            }
+
+            @SneakyThrows
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                entered.countDown();
+                release.await();
+                return argon2.matches(rawPassword, encodedPassword);
+            }
+        };
+
+        HashingExecutor hashingExecutor = new HashingExecutor(blocking, HashingConfig.builder()
+                .threads(1)
+                .queueCapacity(1)
+                .build());
+
+        String hash = argon2.encode("durrutia123");
+
+        // One running (the worker inside the encoder) + one waiting, the third one must be rejected
+        CompletableFuture<Boolean> running = hashingExecutor.matches("durrutia123", hash);
+        Assertions.assertTrue(entered.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> waiting = hashingExecutor.matches("wrong", hash);
+        Assertions.assertThrows(OverloadedException.class, () -> hashingExecutor.matches("durrutia123", hash));
+        release.countDown();
+
+        Assertions.assertTrue(running.join());
+        Assertions.assertFalse(waiting.join());
+
+        HashingMetrics metrics = hashingExecutor.getMetrics();
+        log.debug("Metrics: {}", metrics);
+        Assertions.assertEquals(1, metrics.getRejected());
+        Assertions.assertEquals(2, metrics.getVerifications());
+        Assertions.assertEquals(0, metrics.getQueueDepth());
+
+        log.debug("Done.");
+    }
+
+    /**
+     * The Import test: the bulk hashing never overflows the queue.
+     */
+    @Test
+    @DisplayName("The Import Test")
+    void theImport() {
+        Argon2PasswordEncoder encoder = new Argon2PasswordEncoder();
+        HashingExecutor hashingExecutor = new HashingExecutor(encoder, HashingConfig.builder()
+                .threads(1)
+                .queueCapacity(1)
+                .build());
+
+        List<String> passwords = List.of("one", "two", "three", "four");
+        List<String> hashes = hashingExecutor.encodeAll(passwords);
+        for (int i = 0; i < passwords.size(); i++) {
+            Assertions.assertTrue(encoder.matches(passwords.get(i), hashes.get(i)));
+        }
+
+        // A verification still fits in the queue after the import
+        Assertions.assertEquals(0, hashingExecutor.getMetrics().getRejected());
+        Assertions.assertTrue(hashingExecutor.matches("one", hashes.get(0)).join());
+
+        // The same without blocking the caller
+        List<String> asyncHashes = hashingExecutor.encodeAllAsync(passwords).join();
+        for (int i = 0; i < passwords.size(); i++) {
+            Assertions.assertTrue(encoder.matches(passwords.get(i), asyncHashes.get(i)));
+        }
+        Assertions.assertEquals(0, hashingExecutor.getMetrics().getRejected());
+        Assertions.assertTrue(hashingExecutor.encodeAllAsync(List.of()).join().isEmpty());
+
+        log.debug("Done.");
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.health.v1.HealthCheckRequest;
+import io.grpc.health.v1.HealthCheckResponse.ServingStatus;
+import io.grpc.health.v1.HealthGrpc;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.protobuf.services.HealthStatusManager;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Testing the LoadSheddingInterceptor.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestLoadShedding {
+
+    /**
+     * The Shedding test: RESOURCE_EXHAUSTED while too many tasks wait.
+     */
+    @SneakyThrows
+    @Test
+    @DisplayName("The Load Shedding Test")
+    void theShedding() {
+        AtomicLong queued = new AtomicLong();
+        HealthStatusManager health = new HealthStatusManager();
+        Server server = InProcessServerBuilder.forName("fivet-shedding")
+                .addService(ServerInterceptors.intercept(health.getHealthService(),
+                        new LoadSheddingInterceptor(queued::get, 5)))
+                .build()
+                .start();
+        ManagedChannel channel = InProcessChannelBuilder.forName("fivet-shedding").build();
+        try {
+            HealthGrpc.HealthBlockingStub stub = HealthGrpc.newBlockingStub(channel);
+
+            // Under the limit
+            queued.set(4);
+            Assertions.assertEquals(ServingStatus.SERVING,
+                    stub.check(HealthCheckRequest.getDefaultInstance()).getStatus());
+
+            // Over the limit
+            queued.set(5);
+            StatusRuntimeException ex = Assertions.assertThrows(StatusRuntimeException.class,
+                    () -> stub.check(HealthCheckRequest.getDefaultInstance()));
+            Assertions.assertEquals(Status.Code.RESOURCE_EXHAUSTED, ex.getStatus().getCode());
+        } finally {
+            channel.shutdownNow();
+            server.shutdownNow();
+        }
+
+        log.debug("Done.");
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.orm.DatabaseConfig;
+import cl.ucn.disc.pdis.fivet.services.BloomFilter;
+import cl.ucn.disc.pdis.fivet.services.BloomFilterMetrics;
+import cl.ucn.disc.pdis.fivet.services.ControllerConfig;
+import cl.ucn.disc.pdis.fivet.services.FivetControllerImpl;
+import cl.ucn.disc.pdis.fivet.services.LoginFilterConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Testing the Bloom filter of logins.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestLoginFilter {
+
+    /**
+     * The number of values.
+     */
+    private static final int VALUES = 100_000;
+
+    /**
+     * The Filter test: no false negatives, fpp near the target.
+     */
+    @Test
+    @DisplayName("The Bloom Filter Test")
+    void theFilter() {
+        BloomFilter filter = new BloomFilter(VALUES, 0.01);
+        for (int i = 0; i < VALUES; i++) {
+            filter.put("persona" + i + "@ucn.cl");
+        }
+        for (int i = 0; i < VALUES; i++) {
+            Assertions.assertTrue(filter.mightContain("persona" + i + "@ucn.cl"));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < VALUES; i++) {
+            if (filter.mightContain("unknown" + i + "@ucn.cl")) {
+                falsePositives++;
+            }
+        }
+        BloomFilterMetrics metrics = filter.getMetrics();
+        log.debug("Observed fpp: {}, metrics: {}", falsePositives / (double) VALUES, metrics);
+        Assertions.assertTrue(falsePositives < VALUES * 0.02);
+        Assertions.assertEquals(7, metrics.getNumHashes());
+
+        // The sizing at 1M and 10M Personas (rut + email)
+        for (long personas : new long[]{1_000_000, 10_000_000}) {
+            for (double fpp : new double[]{0.01, 0.001}) {
+                long bits = BloomFilter.optimalNumBits(personas * 2, fpp);
+                log.info("{} Personas, fpp {}: {} MiB, {} hashes", personas, fpp,
+                        String.format("%.1f", bits / 8.0 / 1024 / 1024),
+                        BloomFilter.optimalNumHashes(personas * 2, bits));
+            }
+        }
+    }
+
+    /**
+     * The Controller test: the unknown logins skip the database.
+     */
+    @Test
+    @DisplayName("The Login Filter Test")
+    void theLoginFilter() {
+        // A Persona before the filter is built
+        FivetControllerImpl before = new FivetControllerImpl("jdbc:h2:mem:fivet_filter;DB_CLOSE_DELAY=-1", true);
+        before.add(Persona.builder()
+                .rut("130144918")
+                .nombre("Diego Urrutia-Astorga")
+                .email("durrutia@ucn.cl")
+                .build(), "durrutia123");
+
+        FivetControllerImpl controller = new FivetControllerImpl(ControllerConfig.builder()
+                .database(DatabaseConfig.of("jdbc:h2:mem:fivet_filter;DB_CLOSE_DELAY=-1"))
+                .loginFilter(LoginFilterConfig.builder().enabled(true).expectedLogins(1_000).build())
+                .build(), false);
+
+        // Found by the scan
+        controller.authenticate("durrutia@ucn.cl", "durrutia123").orElseThrow();
+        controller.retrieveByLogin("130144918").orElseThrow();
+
+        // Added after the scan
+        controller.add(Persona.builder()
+                .rut("111111111")
+                .nombre("Other")
+                .email("other@ucn.cl")
+                .build(), "other123");
+        controller.authenticate("other@ucn.cl", "other123").orElseThrow();
+
+        // Unknown: filtered
+        Assertions.assertTrue(controller.authenticate("unknown@ucn.cl", "durrutia123").isEmpty());
+        Assertions.assertTrue(controller.retrieveByLogin("unknown@ucn.cl").isEmpty());
+        Assertions.assertEquals(2, controller.retrieveByLogins(
+                List.of("130144918", "other@ucn.cl", "unknown@ucn.cl")).size());
+        BloomFilterMetrics metrics = controller.getLoginFilterMetrics().orElseThrow();
+        log.debug("Metrics: {}", metrics);
+        Assertions.assertTrue(metrics.getNegatives() >= 2);
+
+        log.debug("Done.");
+    }
+
+}
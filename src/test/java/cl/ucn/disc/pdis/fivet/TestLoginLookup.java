@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.orm.DAO;
+import cl.ucn.disc.pdis.fivet.orm.ORMLiteDAO;
+import cl.ucn.disc.pdis.fivet.orm.Schema;
+import cl.ucn.disc.pdis.fivet.orm.TimestampFormat;
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import lombok.Cleanup;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Testing the login lookup: one query (rut OR email) finds the same Persona as two queries (rut, then email). The
+ * timing lives in the DAOBenchmark (jmh).
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestLoginLookup {
+
+    /**
+     * The number of Personas.
+     */
+    private static final int PERSONAS = 100;
+
+    /**
+     * The directory of the SQLite file (deleted after the test).
+     */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * The Lookup test.
+     *
+     * @param database to use (h2 or sqlite).
+     */
+    @SneakyThrows
+    @ParameterizedTest
+    @ValueSource(strings = {"h2", "sqlite"})
+    @DisplayName("The Login Lookup Test")
+    void theLookup(String database) {
+        log.debug("Starting the test using: {}", database);
+
+        TimestampFormat.STRING.register();
+
+        @Cleanup
+        ConnectionSource cs = new JdbcConnectionSource(databaseUrl(database, this.tempDir, "fivet_lookup"));
+        Schema.createTable(cs, Persona.class);
+
+        DAO<Persona> dao = new ORMLiteDAO<>(cs, Persona.class);
+        for (int i = 0; i < PERSONAS; i++) {
+            dao.save(Persona.builder()
+                    .rut("rut-" + i)
+                    .nombre("Persona " + i)
+                    .email("persona" + i + "@ucn.cl")
+                    .password("not-a-hash")
+                    .build());
+        }
+
+        // One query (rut OR email) == two queries (rut, then email)
+        for (int i = 0; i < PERSONAS; i++) {
+            for (String login : List.of("rut-" + i, "persona" + i + "@ucn.cl")) {
+                Optional<Persona> two = dao.get("rut", login);
+                if (two.isEmpty()) {
+                    two = dao.get("email", login);
+                }
+                Persona one = dao.getAny(List.of("rut", "email"), login).orElseThrow();
+                Assertions.assertEquals(two.orElseThrow().getId(), one.getId());
+            }
+        }
+        Assertions.assertTrue(dao.getAny(List.of("rut", "email"), "unknown").isEmpty());
+
+        // Batch: all the Personas (by rut or email) in one IN query
+        List<String> logins = new ArrayList<>();
+        for (int i = 0; i < PERSONAS; i++) {
+            logins.add(i % 2 == 0 ? "rut-" + i : "persona" + i + "@ucn.cl");
+        }
+        logins.add("unknown");
+        Assertions.assertEquals(PERSONAS, dao.getAnyIn(List.of("rut", "email"), logins).size());
+
+        // The deleted are out
+        Persona persona = dao.getAny(List.of("rut", "email"), "rut-0").orElseThrow();
+        dao.delete(persona);
+        Assertions.assertTrue(dao.getAny(List.of("rut", "email"), "rut-0").isEmpty());
+        Assertions.assertEquals(PERSONAS - 1, dao.getAnyIn(List.of("rut", "email"), logins).size());
+
+        Schema.dropTable(cs, Persona.class);
+        log.debug("Done.");
+    }
+
+    /**
+     * @param database to use (h2 or sqlite).
+     * @param tempDir  of the SQLite file.
+     * @param name     of the database.
+     * @return the url.
+     */
+    static String databaseUrl(String database, Path tempDir, String name) {
+        return "h2".equals(database)
+                ? "jdbc:h2:mem:" + name
+                : "jdbc:sqlite:" + tempDir.resolve(name + ".db");
+    }
+
+}
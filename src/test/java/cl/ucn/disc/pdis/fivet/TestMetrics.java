@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.metrics.Metrics;
+import cl.ucn.disc.pdis.fivet.metrics.Timer;
+import cl.ucn.disc.pdis.fivet.metrics.TimerSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Testing the Metrics.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestMetrics {
+
+    /**
+     * The Timer test: 1..1000 ms from many threads.
+     */
+    @Test
+    @DisplayName("The Timer Test")
+    void theTimer() {
+        Timer timer = Metrics.timer("test.timer");
+        IntStream.rangeClosed(1, 1000).parallel().forEach(ms -> timer.record(TimeUnit.MILLISECONDS.toNanos(ms)));
+
+        TimerSnapshot snapshot = timer.snapshot();
+        log.debug("Snapshot: {}", snapshot);
+        Assertions.assertEquals(1000, snapshot.getCount());
+        Assertions.assertEquals(500, snapshot.getP50Millis(), 1.0);
+        Assertions.assertEquals(990, snapshot.getP99Millis(), 1.0);
+        Assertions.assertEquals(1000, snapshot.getMaxMillis(), 1.0);
+
+        Metrics.counter("test.counter").add(3);
+        Metrics.gauge("test.gauge", () -> 7);
+        Assertions.assertEquals(3, Metrics.counters().get("test.counter"));
+        Assertions.assertEquals(7, Metrics.counters().get("test.gauge"));
+
+        log.debug("Dump:\n{}", Metrics.dump());
+    }
+
+}
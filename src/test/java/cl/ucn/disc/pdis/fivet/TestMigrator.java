@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.orm.Migration;
+import cl.ucn.disc.pdis.fivet.orm.Migrator;
+import cl.ucn.disc.pdis.fivet.orm.Schema;
+import cl.ucn.disc.pdis.fivet.orm.DatabaseConfig;
+import cl.ucn.disc.pdis.fivet.orm.TimestampFormat;
+import cl.ucn.disc.pdis.fivet.orm.ZonedDateTimeType;
+import cl.ucn.disc.pdis.fivet.services.ControllerConfig;
+import cl.ucn.disc.pdis.fivet.services.FivetControllerImpl;
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.field.DataPersisterManager;
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.table.TableUtils;
+import lombok.Cleanup;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.time.StopWatch;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Testing the Migrator.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestMigrator {
+
+    /**
+     * The Migrations test: only the pending steps, once.
+     */
+    @SneakyThrows
+    @Test
+    @DisplayName("The Migrations Test")
+    void theMigrations() {
+        DataPersisterManager.registerDataPersisters(ZonedDateTimeType.INSTANCE);
+
+        @Cleanup
+        ConnectionSource cs = new JdbcConnectionSource("jdbc:h2:mem:fivet_migrations");
+
+        AtomicInteger applied = new AtomicInteger();
+        List<Migration> migrations = new ArrayList<>();
+        migrations.add(Migration.of(1, "The Persona table", c -> {
+            applied.incrementAndGet();
+            Schema.createTableIfNotExists(c, Persona.class);
+        }));
+
+        // New database: all the steps
+        Migrator migrator = new Migrator(cs, migrations);
+        Assertions.assertEquals(0, migrator.getCurrentVersion());
+        Assertions.assertEquals(1, migrator.migrate());
+        Assertions.assertEquals(1, migrator.getCurrentVersion());
+
+        // Current: nothing to do
+        StopWatch sw = StopWatch.createStarted();
+        Assertions.assertEquals(0, new Migrator(cs, migrations).migrate());
+        log.debug("Current schema checked in {}", sw.formatTime());
+        Assertions.assertEquals(1, applied.get());
+
+        // A new step: only that one
+        migrations.add(Migration.of(2, "The index of the nombre", c -> {
+            applied.incrementAndGet();
+            Dao<Persona, Integer> dao = DaoManager.createDao(c, Persona.class);
+            StringBuilder sql = new StringBuilder("CREATE INDEX persona_nombre_idx ON ");
+            c.getDatabaseType().appendEscapedEntityName(sql, dao.getTableName());
+            sql.append(" (");
+            c.getDatabaseType().appendEscapedEntityName(sql, "nombre");
+            sql.append(")");
+            dao.executeRawNoArgs(sql.toString());
+        }));
+        Assertions.assertEquals(1, new Migrator(cs, migrations).migrate());
+        Assertions.assertEquals(2, applied.get());
+        Assertions.assertEquals(2, new Migrator(cs, migrations).getCurrentVersion());
+
+        // A failed step isn't recorded
+        migrations.add(Migration.of(3, "Broken", c -> {
+            throw new SQLException("Broken");
+        }));
+        Assertions.assertThrows(SQLException.class, () -> new Migrator(cs, migrations).migrate());
+        Assertions.assertEquals(2, new Migrator(cs, migrations).getCurrentVersion());
+
+        // The versions are unique
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Migrator(cs, List.of(
+                Migration.of(1, "One", c -> { }), Migration.of(1, "Again", c -> { }))));
+
+        Schema.dropTable(cs, Persona.class);
+        new Migrator(cs, migrations).dropHistory();
+        log.debug("Done.");
+    }
+
+    /**
+     * The Migrations of a database created before the versions: the table is kept, the index is created.
+     */
+    @SneakyThrows
+    @Test
+    @DisplayName("The Migrations of an Existing Table Test")
+    void theExistingTable() {
+        DataPersisterManager.registerDataPersisters(ZonedDateTimeType.INSTANCE);
+
+        String url = "jdbc:h2:mem:fivet_migrations_existing;DB_CLOSE_DELAY=-1";
+        @Cleanup
+        ConnectionSource cs = new JdbcConnectionSource(url);
+        Dao<Persona, Integer> dao = DaoManager.createDao(cs, Persona.class);
+
+        // The table without the index (and without the history)
+        TableUtils.createTable(cs, Persona.class);
+        Assertions.assertEquals(0, countIndexes(dao, dao.getTableName() + "_deletedAt_idx"));
+
+        FivetControllerImpl controller = new FivetControllerImpl(ControllerConfig.builder()
+                .database(DatabaseConfig.builder().url(url).build())
+                .build(), false);
+        controller.close();
+
+        Assertions.assertEquals(1, countIndexes(dao, dao.getTableName() + "_deletedAt_idx"));
+        Assertions.assertEquals(2, new Migrator(cs, List.of()).getCurrentVersion());
+        Assertions.assertEquals("STRING", Schema.getSetting(cs, TimestampFormat.SETTING).orElseThrow());
+
+        Schema.dropTable(cs, Persona.class);
+        new Migrator(cs, List.of()).dropHistory();
+        log.debug("Done.");
+    }
+
+    /**
+     * @param dao       to use.
+     * @param indexName to find.
+     * @return the number of indexes with the name (H2).
+     */
+    @SneakyThrows
+    private static long countIndexes(Dao<Persona, Integer> dao, String indexName) {
+        return dao.queryRawValue("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE LOWER(INDEX_NAME) = ?",
+                indexName.toLowerCase());
+    }
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.TheServer.FivetServiceImpl;
+import cl.ucn.disc.pdis.fivet.grpc.Credencial;
+import cl.ucn.disc.pdis.fivet.grpc.FivetServiceGrpc;
+import cl.ucn.disc.pdis.fivet.grpc.RespuestaAutenticacion;
+import cl.ucn.disc.pdis.fivet.grpc.SolicitudAutenticacion;
+import cl.ucn.disc.pdis.fivet.metrics.Metrics;
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.ratelimit.RateLimitConfig;
+import cl.ucn.disc.pdis.fivet.ratelimit.RateLimitInterceptor;
+import cl.ucn.disc.pdis.fivet.ratelimit.RateLimiter;
+import cl.ucn.disc.pdis.fivet.services.FivetController;
+import cl.ucn.disc.pdis.fivet.services.FivetControllerImpl;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Testing the RateLimiter.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestRateLimiter {
+
+    /**
+     * The Limits test: the burst, then rejected (by key).
+     */
+    @Test
+    @DisplayName("The Rate Limiter Test")
+    void theLimits() {
+        RateLimiter limiter = new RateLimiter(RateLimitConfig.builder()
+                .enabled(true)
+                .peerRate(0.001)
+                .peerBurst(10)
+                .loginRate(0.001)
+                .loginBurst(3)
+                .build());
+        long rejected = Metrics.counter("ratelimit.login.rejected").sum();
+
+        // The burst of a login (case insensitive)
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(limiter.tryAcquireLogin(i % 2 == 0 ? "durrutia@ucn.cl" : "DUrrutia@ucn.cl"));
+        }
+        Assertions.assertFalse(limiter.tryAcquireLogin("durrutia@ucn.cl"));
+
+        // Other login, other bucket
+        Assertions.assertTrue(limiter.tryAcquireLogin("130144918"));
+        Assertions.assertEquals(rejected + 1, Metrics.counter("ratelimit.login.rejected").sum());
+
+        // The burst of a remote address
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(limiter.tryAcquirePeer("10.0.0.1"));
+        }
+        Assertions.assertFalse(limiter.tryAcquirePeer("10.0.0.1"));
+        Assertions.assertTrue(limiter.tryAcquirePeer("10.0.0.2"));
+
+        log.debug("Metrics:\n{}", Metrics.dump());
+    }
+
+    /**
+     * The Refill test: a token each 1 / rate seconds.
+     */
+    @Test
+    @DisplayName("The Rate Limiter Refill Test")
+    void theRefill() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(RateLimitConfig.builder()
+                .loginRate(20)
+                .loginBurst(1)
+                .build());
+        Assertions.assertTrue(limiter.tryAcquireLogin("durrutia@ucn.cl"));
+        Assertions.assertFalse(limiter.tryAcquireLogin("durrutia@ucn.cl"));
+        Thread.sleep(100);
+        Assertions.assertTrue(limiter.tryAcquireLogin("durrutia@ucn.cl"));
+    }
+
+    /**
+     * The Interceptor test: rejected with RESOURCE_EXHAUSTED before reaching the controller.
+     */
+    @SneakyThrows
+    @Test
+    @DisplayName("The Rate Limit Interceptor Test")
+    void theInterceptor() {
+        FivetControllerImpl controller = new FivetControllerImpl("jdbc:h2:mem:fivet_ratelimit", true);
+        controller.add(Persona.builder()
+                .rut("130144918")
+                .nombre("Diego Urrutia-Astorga")
+                .email("durrutia@ucn.cl")
+                .build(), "durrutia123");
+
+        // The authentications reaching the controller
+        AtomicInteger authentications = new AtomicInteger();
+        FivetController counting = (FivetController) Proxy.newProxyInstance(FivetController.class.getClassLoader(),
+                new Class<?>[]{FivetController.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("authenticate")) {
+                        authentications.incrementAndGet();
+                    }
+                    try {
+                        return method.invoke(controller, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+        FivetServiceImpl service = new FivetServiceImpl(counting);
+        Credencial credencial = Credencial.newBuilder().setLogin("durrutia@ucn.cl").setPassword("durrutia123").build();
+
+        List<Server> servers = new ArrayList<>();
+        List<ManagedChannel> channels = new ArrayList<>();
+        try {
+            // The limit of the remote address (all the methods)
+            {
+                FivetServiceGrpc.FivetServiceBlockingStub stub = FivetServiceGrpc.newBlockingStub(start("fivet-peer",
+                        service, RateLimitConfig.builder().peerRate(0.001).peerBurst(2).build(), servers, channels));
+                stub.autenticar(credencial);
+                stub.autenticar(credencial);
+                StatusRuntimeException ex = Assertions.assertThrows(StatusRuntimeException.class,
+                        () -> stub.autenticar(credencial));
+                Assertions.assertEquals(Status.Code.RESOURCE_EXHAUSTED, ex.getStatus().getCode());
+                Assertions.assertEquals(2, authentications.get());
+            }
+
+            // The limit of the login (autenticar)
+            {
+                authentications.set(0);
+                FivetServiceGrpc.FivetServiceBlockingStub stub = FivetServiceGrpc.newBlockingStub(start("fivet-login",
+                        service, RateLimitConfig.builder().loginRate(0.001).loginBurst(1).build(), servers,
+                        channels));
+                stub.autenticar(credencial);
+                StatusRuntimeException ex = Assertions.assertThrows(StatusRuntimeException.class,
+                        () -> stub.autenticar(credencial));
+                Assertions.assertEquals(Status.Code.RESOURCE_EXHAUSTED, ex.getStatus().getCode());
+                Assertions.assertEquals(1, authentications.get());
+            }
+
+            // The limit of the login (autenticarStream): answered in the stream
+            {
+                authentications.set(0);
+                FivetServiceGrpc.FivetServiceStub stub = FivetServiceGrpc.newStub(start("fivet-stream",
+                        service, RateLimitConfig.builder().loginRate(0.001).loginBurst(2).build(), servers,
+                        channels));
+                List<RespuestaAutenticacion> respuestas = new ArrayList<>();
+                CompletableFuture<List<RespuestaAutenticacion>> done = new CompletableFuture<>();
+                StreamObserver<SolicitudAutenticacion> requests = stub.autenticarStream(new StreamObserver<>() {
+                    @Override
+                    public void onNext(RespuestaAutenticacion respuesta) {
+                        respuestas.add(respuesta);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        done.completeExceptionally(throwable);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        done.complete(respuestas);
+                    }
+                });
+                for (int i = 1; i <= 3; i++) {
+                    requests.onNext(SolicitudAutenticacion.newBuilder().setId(i).setCredencial(credencial).build());
+                }
+                requests.onCompleted();
+
+                List<RespuestaAutenticacion> results = done.get(30, TimeUnit.SECONDS);
+                log.debug("Results: {}", results);
+                Assertions.assertEquals(3, results.size());
+                Assertions.assertEquals(2, results.stream().filter(RespuestaAutenticacion::getAutenticado).count());
+                Assertions.assertEquals(1, results.stream()
+                        .filter(r -> r.getCodigo() == Status.Code.RESOURCE_EXHAUSTED.value())
+                        .count());
+                Assertions.assertEquals(2, authentications.get());
+            }
+        } finally {
+            channels.forEach(ManagedChannel::shutdownNow);
+            servers.forEach(Server::shutdownNow);
+            controller.close();
+        }
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Start an in-process server with the service behind the RateLimitInterceptor.
+     *
+     * @param name     of the server.
+     * @param service  to serve.
+     * @param config   of the limits.
+     * @param servers  to stop.
+     * @param channels to stop.
+     * @return the channel to the server.
+     */
+    @SneakyThrows
+    private static ManagedChannel start(String name, FivetServiceImpl service, RateLimitConfig config,
+                                        List<Server> servers, List<ManagedChannel> channels) {
+        servers.add(InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(service.toServiceDefinition(),
+                        new RateLimitInterceptor(new RateLimiter(config))))
+                .build()
+                .start());
+        ManagedChannel channel = InProcessChannelBuilder.forName(name).build();
+        channels.add(channel);
+        return channel;
+    }
+
+}
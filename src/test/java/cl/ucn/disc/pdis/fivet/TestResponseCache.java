@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.TheServer.FivetServiceImpl;
+import cl.ucn.disc.pdis.fivet.grpc.Credencial;
+import cl.ucn.disc.pdis.fivet.grpc.FivetServiceGrpc;
+import cl.ucn.disc.pdis.fivet.grpc.Persona;
+import cl.ucn.disc.pdis.fivet.orm.CacheConfig;
+import cl.ucn.disc.pdis.fivet.services.FivetControllerImpl;
+import io.grpc.Drainable;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+/**
+ * Testing the cache of the serialized Personas.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestResponseCache {
+
+    /**
+     * The Cache test: same wire format, dropped on writes.
+     */
+    @SneakyThrows
+    @Test
+    @DisplayName("The Response Cache Test")
+    void theCache() {
+        FivetControllerImpl controller = new FivetControllerImpl("jdbc:h2:mem:fivet_responses", true);
+        PersonaBytesCache cache = new PersonaBytesCache(CacheConfig.builder().enabled(true).build());
+        controller.addChangeListener(cache::invalidate);
+
+        controller.add(cl.ucn.disc.pdis.fivet.model.Persona.builder()
+                .rut("130144918")
+                .nombre("Diego Urrutia-Astorga")
+                .email("durrutia@ucn.cl")
+                .direccion("Angamos #0610")
+                .build(), "durrutia123");
+        cl.ucn.disc.pdis.fivet.model.Persona persona = controller.retrieveByLogin("130144918").orElseThrow();
+
+        // Serialized once
+        byte[] bytes = cache.get(persona, TestResponseCache::toGrpc);
+        Assertions.assertSame(bytes, cache.get(persona, TestResponseCache::toGrpc));
+
+        // The same wire format
+        InputStream stream = PersonaBytesCache.MARSHALLER.stream(bytes);
+        Assertions.assertEquals(bytes.length, stream.available());
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        ((Drainable) stream).drainTo(wire);
+        Assertions.assertEquals(toGrpc(persona), Persona.parseFrom(wire.toByteArray()));
+
+        // A write drops it
+        controller.changePassword(persona.getId(), "durrutia456");
+        Assertions.assertNotSame(bytes, cache.get(persona, TestResponseCache::toGrpc));
+
+        controller.close();
+        log.debug("Done.");
+    }
+
+    /**
+     * The Service test: autenticar with the cache returns the same Persona than without it.
+     */
+    @SneakyThrows
+    @Test
+    @DisplayName("The Response Cache Service Test")
+    void theService() {
+        FivetControllerImpl controller = new FivetControllerImpl("jdbc:h2:mem:fivet_responses_service", true);
+        controller.add(cl.ucn.disc.pdis.fivet.model.Persona.builder()
+                .rut("130144918")
+                .nombre("Diego Urrutia-Astorga")
+                .email("durrutia@ucn.cl")
+                .direccion("Angamos #0610")
+                .build(), "durrutia123");
+
+        Server cached = InProcessServerBuilder.forName("fivet-cached")
+                .addService(new FivetServiceImpl(controller, CacheConfig.builder().enabled(true).build())
+                        .toServiceDefinition())
+                .build()
+                .start();
+        Server uncached = InProcessServerBuilder.forName("fivet-uncached")
+                .addService(new FivetServiceImpl(controller).toServiceDefinition())
+                .build()
+                .start();
+        ManagedChannel cachedChannel = InProcessChannelBuilder.forName("fivet-cached").build();
+        ManagedChannel uncachedChannel = InProcessChannelBuilder.forName("fivet-uncached").build();
+        try {
+            FivetServiceGrpc.FivetServiceBlockingStub cachedStub = FivetServiceGrpc.newBlockingStub(cachedChannel);
+            FivetServiceGrpc.FivetServiceBlockingStub uncachedStub = FivetServiceGrpc.newBlockingStub(uncachedChannel);
+
+            Credencial credencial = Credencial.newBuilder().setLogin("durrutia@ucn.cl").setPassword("durrutia123")
+                    .build();
+            Persona expected = uncachedStub.autenticar(credencial);
+            Assertions.assertEquals("Angamos #0610", expected.getDireccion());
+
+            // Serialized, then from the cache
+            Assertions.assertEquals(expected, cachedStub.autenticar(credencial));
+            Assertions.assertEquals(expected, cachedStub.autenticar(credencial));
+        } finally {
+            cachedChannel.shutdownNow();
+            uncachedChannel.shutdownNow();
+            cached.shutdownNow();
+            uncached.shutdownNow();
+            controller.close();
+        }
+
+        log.debug("Done.");
+    }
+
+    /**
+     * @param persona to convert.
+     * @return the gRPC Persona.
+     */
+    private static Persona toGrpc(cl.ucn.disc.pdis.fivet.model.Persona persona) {
+        return Persona.newBuilder()
+                .setRut(persona.getRut())
+                .setNombre(persona.getNombre())
+                .setEmail(persona.getEmail())
+                .setDireccion(persona.getDireccion())
+                .build();
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.health.v1.HealthCheckRequest;
+import io.grpc.health.v1.HealthCheckResponse.ServingStatus;
+import io.grpc.health.v1.HealthGrpc;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.protobuf.services.HealthStatusManager;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.time.StopWatch;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Testing the graceful shutdown of the Server.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestShutdown {
+
+    /**
+     * The Drain test: NOT_SERVING while still taking calls for the delay, then stopped and closed.
+     */
+    @SneakyThrows
+    @Test
+    @DisplayName("The Drain Test")
+    void theDrain() {
+        ServerConfig config = ServerConfig.builder().shutdownDelay(1).shutdownGrace(1).build();
+
+        HealthStatusManager health = new HealthStatusManager();
+        health.setStatus(HealthStatusManager.SERVICE_NAME_ALL_SERVICES, ServingStatus.SERVING);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Server server = InProcessServerBuilder.forName("fivet-drain")
+                .executor(executor)
+                .addService(health.getHealthService())
+                .build()
+                .start();
+        ManagedChannel channel = InProcessChannelBuilder.forName("fivet-drain").build();
+        HealthGrpc.HealthBlockingStub stub = HealthGrpc.newBlockingStub(channel);
+        Assertions.assertEquals(ServingStatus.SERVING,
+                stub.check(HealthCheckRequest.getDefaultInstance()).getStatus());
+
+        AtomicBoolean closed = new AtomicBoolean();
+        StopWatch sw = StopWatch.createStarted();
+        Thread shutdown = new Thread(() -> TheServer.drain(config, server, health, executor, () -> closed.set(true)));
+        shutdown.start();
+
+        // The delay: NOT_SERVING, but the calls are still taken
+        TimeUnit.MILLISECONDS.sleep(200);
+        Assertions.assertFalse(server.isShutdown());
+        Assertions.assertEquals(ServingStatus.NOT_SERVING,
+                stub.check(HealthCheckRequest.getDefaultInstance()).getStatus());
+
+        // After the delay: stopped and closed
+        shutdown.join();
+        sw.stop();
+        log.debug("Drained in {}", sw.formatTime());
+        Assertions.assertTrue(sw.getTime() >= TimeUnit.SECONDS.toMillis(config.getShutdownDelay()));
+        Assertions.assertTrue(server.isTerminated());
+        Assertions.assertTrue(executor.isShutdown());
+        Assertions.assertTrue(closed.get());
+
+        channel.shutdownNow();
+        log.debug("Done.");
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.orm.CacheConfig;
+import cl.ucn.disc.pdis.fivet.orm.CacheMetrics;
+import cl.ucn.disc.pdis.fivet.orm.DatabaseConfig;
+import cl.ucn.disc.pdis.fivet.services.ControllerConfig;
+import cl.ucn.disc.pdis.fivet.services.FivetControllerImpl;
+import cl.ucn.disc.pdis.fivet.services.WarmUpConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing the warm-up and the close of the Controller.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestWarmUp {
+
+    /**
+     * The WarmUp test: no data touched, then closed.
+     */
+    @Test
+    @DisplayName("The WarmUp Test")
+    void theWarmUp() {
+        FivetControllerImpl controller = new FivetControllerImpl(ControllerConfig.builder()
+                .database(DatabaseConfig.builder().url("jdbc:h2:mem:fivet_warmup;DB_CLOSE_DELAY=-1").pooled(true)
+                        .build())
+                .warmUp(WarmUpConfig.builder().iterations(5).build())
+                .build(), true);
+        controller.add(Persona.builder()
+                .rut("130144918")
+                .nombre("Diego Urrutia-Astorga")
+                .email("durrutia@ucn.cl")
+                .build(), "durrutia123");
+
+        long elapsed = controller.warmUp();
+        log.debug("Warmed up in {}ms, pool: {}", elapsed, controller.getPoolMetrics().orElseThrow());
+        Assertions.assertEquals(1, controller.retrievePage(null, 10).size());
+        controller.authenticate("durrutia@ucn.cl", "durrutia123").orElseThrow();
+
+        // Closed: no more work
+        controller.close();
+        Assertions.assertThrows(Exception.class, () -> controller.authenticate("durrutia@ucn.cl", "durrutia123"));
+
+        log.debug("Done.");
+    }
+
+    /**
+     * The Preload test: the Personas are cached by the warm-up.
+     */
+    @Test
+    @DisplayName("The Preload Test")
+    void thePreload() {
+        FivetControllerImpl controller = new FivetControllerImpl(ControllerConfig.builder()
+                .database(DatabaseConfig.builder().url("jdbc:h2:mem:fivet_preload;DB_CLOSE_DELAY=-1").build())
+                .personaCache(CacheConfig.builder().enabled(true).build())
+                .warmUp(WarmUpConfig.builder().iterations(1).preload(10).build())
+                .build(), true);
+        try {
+            controller.add(Persona.builder()
+                    .rut("130144918")
+                    .nombre("Diego Urrutia-Astorga")
+                    .email("durrutia@ucn.cl")
+                    .build(), "durrutia123");
+
+            controller.warmUp();
+            Assertions.assertEquals(1, controller.getPersonaCacheMetrics().orElseThrow().getSize());
+
+            // The first login is a hit
+            CacheMetrics before = controller.getPersonaCacheMetrics().orElseThrow();
+            controller.authenticate("130144918", "durrutia123").orElseThrow();
+            CacheMetrics after = controller.getPersonaCacheMetrics().orElseThrow();
+            log.debug("Metrics: {}", after);
+            Assertions.assertEquals(before.getMisses(), after.getMisses());
+            Assertions.assertEquals(before.getHits() + 1, after.getHits());
+        } finally {
+            controller.close();
+        }
+
+        log.debug("Done.");
+    }
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2022 Diego Urrutia-Astorga.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package cl.ucn.disc.pdis.fivet;
+
+import cl.ucn.disc.pdis.fivet.model.Persona;
+import cl.ucn.disc.pdis.fivet.orm.DAO;
+import cl.ucn.disc.pdis.fivet.orm.ORMLiteDAO;
+import cl.ucn.disc.pdis.fivet.orm.Schema;
+import cl.ucn.disc.pdis.fivet.orm.TimestampFormat;
+import cl.ucn.disc.pdis.fivet.orm.TimestampMigration;
+import cl.ucn.disc.pdis.fivet.orm.ZonedDateTimeEpochType;
+import cl.ucn.disc.pdis.fivet.orm.ZonedDateTimeType;
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import lombok.Cleanup;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.time.StopWatch;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Testing the storage of the ZonedDateTime.
+ *
+ * @author Diego Urrutia-Astorga.
+ */
+@Slf4j
+public final class TestZonedDateTimeType {
+
+    /**
+     * The number of conversions to time.
+     */
+    private static final int CONVERSIONS = 1_000_000;
+
+    /**
+     * The Epoch test.
+     */
+    @Test
+    @DisplayName("The Epoch Test")
+    void theEpoch() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("America/Santiago")).truncatedTo(ChronoUnit.MICROS);
+
+        // Same instant and offset
+        ZonedDateTime back = ZonedDateTimeEpochType.unpack(ZonedDateTimeEpochType.pack(now));
+        Assertions.assertEquals(now.toInstant(), back.toInstant());
+        Assertions.assertEquals(now.getOffset(), back.getOffset());
+
+        // Before 1970
+        ZonedDateTime old = ZonedDateTime.parse("1969-12-31T23:59:59.999999-03:00[America/Santiago]");
+        Assertions.assertEquals(old.toInstant(), ZonedDateTimeEpochType.unpack(ZonedDateTimeEpochType.pack(old)).toInstant());
+
+        // The order of the longs is the order of the instants
+        Assertions.assertTrue(ZonedDateTimeEpochType.pack(old) < ZonedDateTimeEpochType.pack(now));
+        Assertions.assertTrue(ZonedDateTimeEpochType.pack(now) < ZonedDateTimeEpochType.pack(now.plusNanos(1_000)));
+    }
+
+    /**
+     * Timing the read (SQL to Java) of both formats.
+     */
+    @Test
+    @DisplayName("The Read Throughput Test")
+    void theReadThroughput() {
+        ZonedDateTime now = ZonedDateTime.now();
+        Object string = ZonedDateTimeType.INSTANCE.javaToSqlArg(null, now);
+        Object epoch = ZonedDateTimeEpochType.INSTANCE.javaToSqlArg(null, now);
+
+        StopWatch swString = StopWatch.createStarted();
+        for (int i = 0; i < CONVERSIONS; i++) {
+            Assertions.assertNotNull(ZonedDateTimeType.INSTANCE.sqlArgToJava(null, string, 0));
+        }
+        swString.stop();
+
+        StopWatch swEpoch = StopWatch.createStarted();
+        for (int i = 0; i < CONVERSIONS; i++) {
+            Assertions.assertNotNull(ZonedDateTimeEpochType.INSTANCE.sqlArgToJava(null, epoch, 0));
+        }
+        swEpoch.stop();
+
+        log.info("{} reads, STRING: {}, EPOCH: {}", CONVERSIONS, swString.formatTime(), swEpoch.formatTime());
+    }
+
+    /**
+     * The Migration test (STRING to EPOCH).
+     */
+    @SneakyThrows
+    @Test
+    @DisplayName("The Migration Test")
+    void theMigration() {
+        @Cleanup
+        ConnectionSource cs = new JdbcConnectionSource("jdbc:h2:mem:fivet_timestamps");
+        try {
+            TimestampFormat.STRING.register();
+            Schema.dropTable(cs, Persona.class);
+            Schema.createTable(cs, Persona.class);
+
+            DAO<Persona> stringDao = new ORMLiteDAO<>(cs, Persona.class);
+            Persona persona = Persona.builder()
+                    .rut("130144918")
+                    .nombre("Diego Urrutia-Astorga")
+                    .email("durrutia@ucn.cl")
+                    .password("not-a-hash")
+                    .build();
+            stringDao.save(persona);
+
+            TimestampMigration.toEpoch(cs, Persona.class, "createdAt", "deletedAt");
+
+            TimestampFormat.EPOCH.register();
+            DAO<Persona> epochDao = new ORMLiteDAO<>(cs, Persona.class);
+            Persona migrated = epochDao.get(persona.getId()).orElseThrow();
+            Assertions.assertEquals(persona.getCreatedAt().toInstant().truncatedTo(ChronoUnit.MICROS),
+                    migrated.getCreatedAt().toInstant());
+            Assertions.assertNull(migrated.getDeletedAt());
+
+            // Still NOT NULL
+            Dao<Persona, Integer> dao = DaoManager.createDao(cs, Persona.class);
+            StringBuilder sql = new StringBuilder("UPDATE ");
+            cs.getDatabaseType().appendEscapedEntityName(sql, dao.getTableName());
+            sql.append(" SET ");
+            cs.getDatabaseType().appendEscapedEntityName(sql, "createdAt");
+            sql.append(" = NULL");
+            Assertions.assertThrows(SQLException.class, () -> dao.executeRawNoArgs(sql.toString()));
+
+            // Already in epoch: nothing to do
+            TimestampMigration.toEpoch(cs, Persona.class, "createdAt", "deletedAt");
+            Assertions.assertEquals(migrated.getCreatedAt(), epochDao.get(persona.getId()).orElseThrow().getCreatedAt());
+
+            Schema.dropTable(cs, Persona.class);
+        } finally {
+            TimestampFormat.STRING.register();
+        }
+    }
+
+
+    /**
+     * The stored format test (checked at startup).
+     */
+    @SneakyThrows
+    @Test
+    @DisplayName("The Stored Format Test")
+    void theStoredFormat() {
+        @Cleanup
+        ConnectionSource cs = new JdbcConnectionSource("jdbc:h2:mem:fivet_stored_format");
+        try {
+            // A table of STRING timestamps without the setting
+            TimestampFormat.STRING.register();
+            Schema.createTable(cs, Persona.class);
+            new ORMLiteDAO<>(cs, Persona.class).save(Persona.builder()
+                    .rut("130144918")
+                    .nombre("Diego Urrutia-Astorga")
+                    .email("durrutia@ucn.cl")
+                    .password("not-a-hash")
+                    .build());
+
+            // Detected and stored
+            TimestampMigration.apply(cs, Persona.class, TimestampFormat.STRING, "createdAt", "deletedAt");
+            Assertions.assertEquals("STRING", Schema.getSetting(cs, TimestampFormat.SETTING).orElseThrow());
+
+            // STRING -> EPOCH: converted
+            TimestampFormat.EPOCH.register();
+            TimestampMigration.apply(cs, Persona.class, TimestampFormat.EPOCH, "createdAt", "deletedAt");
+            Assertions.assertEquals("EPOCH", Schema.getSetting(cs, TimestampFormat.SETTING).orElseThrow());
+            Assertions.assertEquals(1, new ORMLiteDAO<>(cs, Persona.class).getAll().size());
+
+            // EPOCH -> STRING: fail
+            TimestampFormat.STRING.register();
+            Assertions.assertThrows(IllegalStateException.class, () -> TimestampMigration.apply(cs,
+                    Persona.class, TimestampFormat.STRING, "createdAt", "deletedAt"));
+            Assertions.assertEquals("EPOCH", Schema.getSetting(cs, TimestampFormat.SETTING).orElseThrow());
+
+            Schema.dropTable(cs, Persona.class);
+        } finally {
+            TimestampFormat.STRING.register();
+        }
+    }
+
+}